@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.benchmarks;
+
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class context building: cached lookup, reflective scan and form plan compilation.
+ *
+ * @author Max Balushkin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextBenchmark {
+
+    @Param({ "small", "wide200", "wide1000" })
+    public String bean;
+
+    private Class beanClass;
+
+    @Setup public void setup() {
+        beanClass = Fixtures.beanClass(bean);
+        MelchiorClassContext.of(beanClass);
+    }
+
+    @Benchmark public MelchiorClassContext cachedOf() {
+        return MelchiorClassContext.of(beanClass);
+    }
+
+    @Benchmark public MelchiorClassContext scan() {
+        return MelchiorClassContext.scan(beanClass);
+    }
+
+    @Benchmark public Object scanAndPlan() {
+        return MelchiorClassContext.scan(beanClass).getPlan();
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.benchmarks;
+
+import com.github.noxchimaera.melchior.benchmarks.beans.SmallBean;
+import com.github.noxchimaera.melchior.benchmarks.beans.WideBean1000;
+import com.github.noxchimaera.melchior.benchmarks.beans.WideBean200;
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+
+import javax.swing.*;
+
+/**
+ * Shared fixtures of benchmarks.
+ *
+ * @author Max Balushkin
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Returns bean class by benchmark parameter.
+     *
+     * @param name {@code small}, {@code wide200} or {@code wide1000}
+     *
+     * @return bean class
+     */
+    static Class beanClass(String name) {
+        switch (name) {
+            case "small": return SmallBean.class;
+            case "wide200": return WideBean200.class;
+            case "wide1000": return WideBean1000.class;
+            default: throw new IllegalArgumentException(name);
+        }
+    }
+
+    /**
+     * Creates factory of stub widgets which don't need display and have no rendering cost.
+     *
+     * @return widget factory
+     */
+    static WidgetFactory<JComponent> stubFactory() {
+        WidgetFactory<JComponent> factory = new WidgetFactory<>();
+        for (Class type : new Class[] { String.class, int.class, double.class }) {
+            factory.register(type, Fixtures::stubWidget);
+        }
+        return factory;
+    }
+
+    static MelchiorWidget<JComponent> stubWidget() {
+        return new MelchiorWidget<>(
+            new StubComponent(),
+            cmpt -> ((StubComponent)cmpt).value,
+            (cmpt, o) -> ((StubComponent)cmpt).value = o
+        );
+    }
+
+    /**
+     * Lightweight component which only holds value.
+     */
+    static final class StubComponent extends JComponent {
+
+        Object value;
+
+    }
+
+}
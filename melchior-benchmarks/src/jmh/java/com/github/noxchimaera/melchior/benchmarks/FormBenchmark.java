@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.benchmarks;
+
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.swing.builders.BasicSwingBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Form construction with stub widgets, runs in headless mode. <br>
+ * Measures building of components and layout ({@code getPreferredSize()} of content which is never
+ * realized), not creation of native peers and painting, which happen when form is shown in window.
+ *
+ * @author Max Balushkin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormBenchmark {
+
+    @Param({ "small", "wide200", "wide1000" })
+    public String bean;
+
+    private MelchiorClassContext context;
+    private WidgetFactory<JComponent> factory;
+
+    @Setup public void setup() {
+        context = MelchiorClassContext.of(Fixtures.beanClass(bean));
+        factory = Fixtures.stubFactory();
+    }
+
+    @Benchmark public Dimension build() throws ReflectiveOperationException {
+        BasicSwingBuilder<Object, JComponent> builder = new BasicSwingBuilder<>(context, factory);
+        JComponent content = builder.createContent((data, changed) -> { }, () -> { });
+        // layout is computed as by frame.pack()
+        return content.getPreferredSize();
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.benchmarks;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.swing.builders.BasicSwingBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save of form: without changes, with one changed field and with all fields changed.
+ *
+ * @author Max Balushkin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SaveBenchmark {
+
+    @Param({ "small", "wide200", "wide1000" })
+    public String bean;
+
+    private BasicSwingBuilder<Object, JComponent> builder;
+    private List<MelchiorWidget<JComponent>> stringWidgets;
+    private long counter;
+
+    @Setup public void setup() throws ReflectiveOperationException {
+        MelchiorClassContext context = MelchiorClassContext.of(Fixtures.beanClass(bean));
+        builder = new BasicSwingBuilder<>(context, Fixtures.stubFactory());
+        builder.createContent((data, changed) -> { }, () -> { });
+
+        MelchiorFormPlan plan = context.getPlan();
+        stringWidgets = new ArrayList<>();
+        for (int i = 0; i < plan.size(); ++i) {
+            if (plan.getField(i).getFieldType() == String.class && !plan.getField(i).isReadonly()) {
+                stringWidgets.add(builder.getWidget(plan.getField(i).getName()));
+            }
+        }
+    }
+
+    @Benchmark public Set<String> unchanged() {
+        return builder.save();
+    }
+
+    @Benchmark public Set<String> oneChanged() {
+        stringWidgets.get(0).set(String.valueOf(++counter));
+        return builder.save();
+    }
+
+    @Benchmark public Set<String> allChanged() {
+        String value = String.valueOf(++counter);
+        for (MelchiorWidget<JComponent> widget : stringWidgets) {
+            widget.set(value);
+        }
+        return builder.save();
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.benchmarks;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Widget lookup and creation.
+ *
+ * @author Max Balushkin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WidgetFactoryBenchmark {
+
+    private WidgetFactory<JComponent> factory;
+    private WidgetFactory<JComponent> pooled;
+
+    @Setup public void setup() {
+        factory = Fixtures.stubFactory();
+        factory.register(Collection.class, Fixtures::stubWidget);
+
+        pooled = Fixtures.stubFactory();
+        pooled.setPoolSize(16);
+    }
+
+    @Benchmark public MelchiorWidget<JComponent> exactClass() {
+        return factory.get(String.class);
+    }
+
+    @Benchmark public MelchiorWidget<JComponent> byId() {
+        return factory.get(String.class.getName());
+    }
+
+    @Benchmark public MelchiorWidget<JComponent> supertype() {
+        return factory.get(ArrayList.class);
+    }
+
+    @Benchmark public boolean miss() {
+        return factory.supports(Thread.class);
+    }
+
+    @Benchmark public MelchiorWidget<JComponent> pooledGetRelease() {
+        MelchiorWidget<JComponent> widget = pooled.get(String.class);
+        pooled.release(widget);
+        return widget;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.benchmarks.beans;
+
+import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+
+/**
+ * Bean of typical size.
+ *
+ * @author Max Balushkin
+ */
+public class SmallBean {
+
+    @MelchiorField(order = 0)
+    private String firstName = "John";
+    @MelchiorField(order = 1)
+    private String lastName = "Doe";
+    @MelchiorField(order = 2)
+    private int age = 23;
+    @MelchiorField(order = 3)
+    private double rating = 4.5;
+    @MelchiorField(order = 4, readOnly = true)
+    private String id = "42";
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.metrics;
+
+/**
+ * Metrics which emit JDK Flight Recorder events, one event type per phase
+ * (e.g. {@code com.github.noxchimaera.melchior.ContextScan}). <br>
+ * Events are committed only if they are enabled in the recording and exceed its threshold.
+ * Requires JDK with {@code jdk.jfr} module (JDK 11 or 8u262+), so the class is compiled in separate
+ * {@code jfr} source set and loaded by {@link Metrics} by name.
+ *
+ * @author Max Balushkin
+ */
+public class JfrMetrics implements MelchiorMetrics {
+
+    /**
+     * Creates metrics and loads event classes of all phases.
+     *
+     * @throws LinkageError if JDK has no Flight Recorder
+     */
+    public JfrMetrics() {
+        for (Phase phase : Phase.values()) {
+            create(phase);
+        }
+    }
+
+    @Override public Span begin(Phase phase, String subject) {
+        MelchiorEvent event = create(phase);
+        if (!event.isEnabled()) {
+            return Span.NONE;
+        }
+        event.subject = subject;
+        event.begin();
+        return event;
+    }
+
+    private static MelchiorEvent create(Phase phase) {
+        switch (phase) {
+            case CONTEXT_SCAN: return new MelchiorEvent.ContextScan();
+            case WIDGET_CREATION: return new MelchiorEvent.WidgetCreation();
+            case POPULATION: return new MelchiorEvent.Population();
+            case LAYOUT: return new MelchiorEvent.Layout();
+            case SAVE: return new MelchiorEvent.Save();
+            default: throw new IllegalArgumentException("Unknown phase: " + phase);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of Melchior phase.
+ *
+ * @author Max Balushkin
+ */
+@Category("Melchior")
+abstract class MelchiorEvent extends Event implements MelchiorMetrics.Span {
+
+    @Label("Subject")
+    @Description("Class name or widget id")
+    String subject;
+
+    @Label("Count")
+    @Description("Number of processed fields, widgets or changed values")
+    int count;
+
+    @Override public void finish(int count) {
+        end();
+        if (shouldCommit()) {
+            this.count = count;
+            commit();
+        }
+    }
+
+    @Name("com.github.noxchimaera.melchior.ContextScan")
+    @Label("Context Scan")
+    static final class ContextScan extends MelchiorEvent {
+    }
+
+    @Name("com.github.noxchimaera.melchior.WidgetCreation")
+    @Label("Widget Creation")
+    static final class WidgetCreation extends MelchiorEvent {
+    }
+
+    @Name("com.github.noxchimaera.melchior.Population")
+    @Label("Form Population")
+    static final class Population extends MelchiorEvent {
+    }
+
+    @Name("com.github.noxchimaera.melchior.Layout")
+    @Label("Form Layout")
+    static final class Layout extends MelchiorEvent {
+    }
+
+    @Name("com.github.noxchimaera.melchior.Save")
+    @Label("Form Save")
+    static final class Save extends MelchiorEvent {
+    }
+
+}
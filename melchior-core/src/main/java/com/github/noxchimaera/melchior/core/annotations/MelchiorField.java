@@ -42,7 +42,8 @@ public @interface MelchiorField {
     /**
      * Name of getter method. <br>
      * If empty Melchior will use method with name specified by JavaBeans Conventions. <br>
-     * e.g. getter for {@code String firstName} is {@code String getFirstName()}.
+     * e.g. getter for {@code String firstName} is {@code String getFirstName()}. <br>
+     * If there is no such method, field is read directly.
      *
      * @return getter name
      */
@@ -51,7 +52,8 @@ public @interface MelchiorField {
     /**
      * Name of setter method. <br>
      * If empty Melchior will use method with name specified by JavaBeans Conventions. <br>
-     * e.g. setter for {@code String firstName} is {@code void setFirstName(String)}
+     * e.g. setter for {@code String firstName} is {@code void setFirstName(String)}. <br>
+     * If there is no such method, field is written directly.
      *
      * @return setter name
      */
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Numeric field value must be within range (inclusive). <br>
+ * Strings are parsed as numbers, {@code null} is valid (see {@link Required}).
+ *
+ * @author Max Balushkin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Range {
+
+    /**
+     * Minimal value.
+     *
+     * @return minimal value
+     */
+    double min() default Double.NEGATIVE_INFINITY;
+
+    /**
+     * Maximal value.
+     *
+     * @return maximal value
+     */
+    double max() default Double.POSITIVE_INFINITY;
+
+    /**
+     * Error message. If empty default message is used.
+     *
+     * @return error message
+     */
+    String message() default "";
+
+}
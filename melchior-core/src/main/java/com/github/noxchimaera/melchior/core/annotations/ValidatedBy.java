@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.annotations;
+
+import com.github.noxchimaera.melchior.core.validation.Validator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Field value is checked by custom validator. <br>
+ * Validator class must have public no-arg constructor, it is instantiated once per class context.
+ *
+ * @author Max Balushkin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ValidatedBy {
+
+    /**
+     * Validator classes, applied in specified order.
+     *
+     * @return validator classes
+     */
+    Class<? extends Validator>[] value();
+
+    /**
+     * If {@code true} validators are expensive (e.g. query a store) and are run off the Event Dispatch Thread,
+     * after cheap validators have passed.
+     *
+     * @return whether validators are asynchronous
+     */
+    boolean async() default false;
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.commons;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Source of text which is read on demand, e.g. content of large file. <br>
+ * Each call of {@link #open()} reads text from the beginning.
+ *
+ * @author Max Balushkin
+ */
+@FunctionalInterface
+public interface TextSource {
+
+    /**
+     * Opens text for reading.
+     *
+     * @return reader, caller must close it
+     *
+     * @throws IOException if text can't be read
+     */
+    Reader open() throws IOException;
+
+    /**
+     * Returns source of text held in memory.
+     *
+     * @param text text
+     *
+     * @return text source
+     */
+    static TextSource of(CharSequence text) {
+        String s = text.toString();
+        return () -> new StringReader(s);
+    }
+
+    /**
+     * Returns source of file content. File is memory-mapped when it is read, so its content
+     * is not copied to heap except for decoded chunks.
+     *
+     * @param file    file
+     * @param charset file charset
+     *
+     * @return text source
+     */
+    static TextSource of(Path file, Charset charset) {
+        return () -> {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    return Channels.newReader(channel, charset.newDecoder(), -1);
+                }
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                CharsetDecoder decoder = charset.newDecoder();
+                return new Reader() {
+                    private boolean flushed;
+
+                    @Override public int read(char[] cbuf, int off, int len) throws IOException {
+                        if (len == 0) {
+                            return 0;
+                        }
+                        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+                        while (out.position() == off && !flushed) {
+                            CoderResult result = decoder.decode(mapped, out, true);
+                            if (result.isError()) {
+                                result.throwException();
+                            }
+                            if (result.isUnderflow()) {
+                                decoder.flush(out);
+                                flushed = true;
+                            }
+                        }
+                        int n = out.position() - off;
+                        return n == 0 ? -1 : n;
+                    }
+
+                    @Override public void close() throws IOException {
+                        channel.close();
+                    }
+                };
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        };
+    }
+
+    /**
+     * Reads whole text of source.
+     *
+     * @param source text source
+     *
+     * @return text
+     *
+     * @throws IOException if text can't be read
+     */
+    static String read(TextSource source) throws IOException {
+        try (Reader reader = source.open()) {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[8192];
+            int n;
+            while ((n = reader.read(buffer)) > 0) {
+                sb.append(buffer, 0, n);
+            }
+            return sb.toString();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.components;
+
+import com.github.noxchimaera.melchior.core.commons.functional.ObjBooleanConsumer;
+
+import java.util.function.Predicate;
+
+/**
+ * Widget with {@code boolean} value. <br>
+ * {@link #getBoolean()} and {@link #setBoolean(boolean)} do not box values.
+ *
+ * @param <T> GUI component type
+ *
+ * @author Max Balushkin
+ */
+public class BooleanWidget<T> extends MelchiorWidget<T> {
+
+    private final Predicate<T> primitiveGetter;
+    private final ObjBooleanConsumer<T> primitiveSetter;
+
+    /**
+     * Creates GUI component wrapper.
+     *
+     * @param javaComponent Java GUI component
+     * @param getter        the operation to get value from component
+     * @param setter        the operation to set component value
+     */
+    public BooleanWidget(T javaComponent, Predicate<T> getter, ObjBooleanConsumer<T> setter) {
+        super(javaComponent, boolean.class, cmpt -> getter.test(cmpt), (cmpt, o) -> setter.accept(cmpt, (Boolean)o));
+        this.primitiveGetter = getter;
+        this.primitiveSetter = setter;
+    }
+
+    /**
+     * Returns component value.
+     *
+     * @return value
+     */
+    public boolean getBoolean() {
+        return primitiveGetter.test(javaComponent());
+    }
+
+    /**
+     * Sets component value.
+     *
+     * @param value new value
+     */
+    public void setBoolean(boolean value) {
+        primitiveSetter.accept(javaComponent(), value);
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.components;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Widget with {@code int} value. <br>
+ * {@link #getInt()} and {@link #setInt(int)} do not box values.
+ *
+ * @param <T> GUI component type
+ *
+ * @author Max Balushkin
+ */
+public class IntWidget<T> extends MelchiorWidget<T> {
+
+    private final ToIntFunction<T> primitiveGetter;
+    private final ObjIntConsumer<T> primitiveSetter;
+
+    /**
+     * Creates GUI component wrapper.
+     *
+     * @param javaComponent Java GUI component
+     * @param getter        the operation to get value from component
+     * @param setter        the operation to set component value
+     */
+    public IntWidget(T javaComponent, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+        super(javaComponent, int.class, cmpt -> getter.applyAsInt(cmpt), (cmpt, o) -> setter.accept(cmpt, ((Number)o).intValue()));
+        this.primitiveGetter = getter;
+        this.primitiveSetter = setter;
+    }
+
+    /**
+     * Returns component value.
+     *
+     * @return value
+     */
+    public int getInt() {
+        return primitiveGetter.applyAsInt(javaComponent());
+    }
+
+    /**
+     * Sets component value.
+     *
+     * @param value new value
+     */
+    public void setInt(int value) {
+        primitiveSetter.accept(javaComponent(), value);
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.components;
+
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Widget with {@code long} value. <br>
+ * {@link #getLong()} and {@link #setLong(long)} do not box values.
+ *
+ * @param <T> GUI component type
+ *
+ * @author Max Balushkin
+ */
+public class LongWidget<T> extends MelchiorWidget<T> {
+
+    private final ToLongFunction<T> primitiveGetter;
+    private final ObjLongConsumer<T> primitiveSetter;
+
+    /**
+     * Creates GUI component wrapper.
+     *
+     * @param javaComponent Java GUI component
+     * @param getter        the operation to get value from component
+     * @param setter        the operation to set component value
+     */
+    public LongWidget(T javaComponent, ToLongFunction<T> getter, ObjLongConsumer<T> setter) {
+        super(javaComponent, long.class, cmpt -> getter.applyAsLong(cmpt), (cmpt, o) -> setter.accept(cmpt, ((Number)o).longValue()));
+        this.primitiveGetter = getter;
+        this.primitiveSetter = setter;
+    }
+
+    /**
+     * Returns component value.
+     *
+     * @return value
+     */
+    public long getLong() {
+        return primitiveGetter.applyAsLong(javaComponent());
+    }
+
+    /**
+     * Sets component value.
+     *
+     * @param value new value
+     */
+    public void setLong(long value) {
+        primitiveSetter.accept(javaComponent(), value);
+    }
+
+}
@@ -38,6 +38,14 @@ public class MelchiorWidget<T> {
      * Sets component value.
      */
     private BiConsumer<T, Object> setter;
+    /**
+     * Type of values returned by getter and accepted by setter.
+     */
+    private Class valueType;
+    /**
+     * Factory entry which created the widget, used for pooling.
+     */
+    private Object origin;
 
     /**
      * Creates GUI component wrapper.
@@ -47,7 +55,22 @@ public class MelchiorWidget<T> {
      * @param setter        the operation to set component value
      */
     public MelchiorWidget(T javaComponent, Function<T, Object> getter, BiConsumer<T, Object> setter) {
+        this(javaComponent, Object.class, getter, setter);
+    }
+
+    /**
+     * Creates GUI component wrapper with known value type. <br>
+     * Values are converted between value type and field type when widget is bound to field,
+     * see {@link com.github.noxchimaera.melchior.core.convert.ValueConversion}.
+     *
+     * @param javaComponent Java GUI component
+     * @param valueType     type of component value
+     * @param getter        the operation to get value from component
+     * @param setter        the operation to set component value
+     */
+    public MelchiorWidget(T javaComponent, Class valueType, Function<T, Object> getter, BiConsumer<T, Object> setter) {
         this.javaComponent = javaComponent;
+        this.valueType = valueType;
         this.getter = getter;
         this.setter = setter;
     }
@@ -79,4 +102,21 @@ public class MelchiorWidget<T> {
         return javaComponent;
     }
 
+    /**
+     * Returns type of component value.
+     *
+     * @return value type, {@code Object} if it is unknown
+     */
+    public Class getValueType() {
+        return valueType;
+    }
+
+    Object origin() {
+        return origin;
+    }
+
+    void origin(Object origin) {
+        this.origin = origin;
+    }
+
 }
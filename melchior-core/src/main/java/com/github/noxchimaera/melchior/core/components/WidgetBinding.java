@@ -0,0 +1,605 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.components;
+
+import com.github.noxchimaera.melchior.core.context.FieldAccessor;
+import com.github.noxchimaera.melchior.core.context.MelchiorAccessException;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.convert.Converters;
+import com.github.noxchimaera.melchior.core.convert.ValueConversion;
+
+import java.util.Objects;
+
+/**
+ * Binds widget to field of bean. <br>
+ * Binding is resolved once, so primitive widgets paired with fields of the same primitive type
+ * transfer values without boxing. Widgets of other value types are bound through {@link ValueConversion},
+ * which is resolved together with binding. Binding remembers value loaded from bean,
+ * so it can tell whether user has modified it.
+ *
+ * @param <T> GUI component type
+ *
+ * @author Max Balushkin
+ */
+public abstract class WidgetBinding<T> {
+
+    /**
+     * Creates binding of widget to field. <br>
+     * Conversion between widget value and field value is resolved by shared registry of converters.
+     *
+     * @param field  field context
+     * @param widget widget
+     * @param <T>    GUI component type
+     *
+     * @return binding
+     *
+     * @throws IllegalArgumentException if widget value can't be converted to field type
+     */
+    public static <T> WidgetBinding<T> of(MelchiorFieldContext field, MelchiorWidget<T> widget) {
+        WidgetBinding<T> binding = primitive(field, widget);
+        if (binding != null) {
+            return binding;
+        }
+        return of(field, widget, ValueConversion.resolve(widget.getValueType(), field.getFieldType()));
+    }
+
+    /**
+     * Creates binding of widget to field with resolved conversion (see {@link ValueConversion#resolve(Converters, Class, Class)}).
+     *
+     * @param field      field context
+     * @param widget     widget
+     * @param conversion conversion between widget value type and field type
+     * @param <T>        GUI component type
+     *
+     * @return binding
+     */
+    public static <T> WidgetBinding<T> of(MelchiorFieldContext field, MelchiorWidget<T> widget, ValueConversion conversion) {
+        WidgetBinding<T> binding = primitive(field, widget);
+        if (binding != null) {
+            return binding;
+        }
+        return conversion.isIdentity()
+            ? new ObjectBinding<>(field, widget)
+            : new ConvertingBinding<>(field, widget, conversion);
+    }
+
+    private static <T> WidgetBinding<T> primitive(MelchiorFieldContext field, MelchiorWidget<T> widget) {
+        Class type = field.getFieldType();
+        if (type == int.class && widget instanceof IntWidget) {
+            return new IntBinding<>(field, (IntWidget<T>)widget);
+        }
+        if (type == long.class && widget instanceof LongWidget) {
+            return new LongBinding<>(field, (LongWidget<T>)widget);
+        }
+        if (type == double.class && widget instanceof DoubleWidget) {
+            return new DoubleBinding<>(field, (DoubleWidget<T>)widget);
+        }
+        if (type == boolean.class && widget instanceof BooleanWidget) {
+            return new BooleanBinding<>(field, (BooleanWidget<T>)widget);
+        }
+        return null;
+    }
+
+    protected final MelchiorFieldContext field;
+    protected final FieldAccessor accessor;
+
+    protected WidgetBinding(MelchiorFieldContext field) {
+        this.field = field;
+        this.accessor = field.getAccessor();
+    }
+
+    /**
+     * Sets widget value from field of bean and remembers it as unmodified value.
+     *
+     * @param bean object
+     */
+    public abstract void load(Object bean);
+
+    /**
+     * Sets widget value and remembers it as unmodified value. <br>
+     * Used when field value was read from bean in advance.
+     *
+     * @param value field value
+     */
+    public abstract void loadValue(Object value);
+
+    /**
+     * Sets widget value if it differs from unmodified value and user has not modified widget. <br>
+     * Used to push changes of bean to open form, the value becomes unmodified value.
+     *
+     * @param value new field value
+     *
+     * @return {@code true} if widget was set
+     */
+    public abstract boolean refresh(Object value);
+
+    /**
+     * Sets field of bean from widget value. Stored value becomes unmodified value.
+     *
+     * @param bean object
+     */
+    public abstract void store(Object bean);
+
+    /**
+     * Sets field of bean from widget value if it differs from unmodified value.
+     *
+     * @param bean object
+     *
+     * @return {@code true} if field was set
+     */
+    public abstract boolean storeIfModified(Object bean);
+
+    /**
+     * Whether widget value differs from value loaded or stored last time.
+     *
+     * @return {@code true} if value is modified
+     */
+    public abstract boolean isModified();
+
+    /**
+     * Returns widget value converted to field type.
+     *
+     * @return field value
+     */
+    public abstract Object getValue();
+
+    /**
+     * Sets widget value from value of field type. Unmodified value is kept.
+     *
+     * @param value field value
+     */
+    public abstract void setValue(Object value);
+
+    /**
+     * Returns bound field.
+     *
+     * @return field context
+     */
+    public MelchiorFieldContext field() {
+        return field;
+    }
+
+    /**
+     * Returns bound widget.
+     *
+     * @return widget
+     */
+    public abstract MelchiorWidget<T> widget();
+
+    private static final class ObjectBinding<T> extends WidgetBinding<T> {
+
+        private final MelchiorWidget<T> widget;
+        private Object initial;
+        /**
+         * Widget value right after initial value was set, widget may normalize value (e.g. {@code null} to empty text).
+         */
+        private Object shown;
+
+        ObjectBinding(MelchiorFieldContext field, MelchiorWidget<T> widget) {
+            super(field);
+            this.widget = widget;
+        }
+
+        @Override public void load(Object bean) {
+            show(accessor.get(bean));
+        }
+
+        @Override public void loadValue(Object value) {
+            show(value);
+        }
+
+        @Override public boolean refresh(Object value) {
+            if (Objects.equals(initial, value) || isModified()) {
+                return false;
+            }
+            show(value);
+            return true;
+        }
+
+        @Override public void store(Object bean) {
+            initial = widget.get();
+            accessor.set(bean, initial);
+            shown = initial;
+        }
+
+        @Override public boolean storeIfModified(Object bean) {
+            Object value = widget.get();
+            if (Objects.equals(shown, value)) {
+                return false;
+            }
+            accessor.set(bean, value);
+            initial = value;
+            shown = value;
+            return true;
+        }
+
+        @Override public boolean isModified() {
+            return !Objects.equals(shown, widget.get());
+        }
+
+        @Override public Object getValue() {
+            return widget.get();
+        }
+
+        @Override public void setValue(Object value) {
+            widget.set(value);
+        }
+
+        @Override public MelchiorWidget<T> widget() {
+            return widget;
+        }
+
+        private void show(Object value) {
+            initial = value;
+            widget.set(value);
+            shown = widget.get();
+        }
+
+    }
+
+    private static final class ConvertingBinding<T> extends WidgetBinding<T> {
+
+        private final MelchiorWidget<T> widget;
+        private final ValueConversion conversion;
+        private final boolean primitive;
+        /**
+         * Field value, not widget value.
+         */
+        private Object initial;
+        /**
+         * Widget value right after initial value was set.
+         */
+        private Object shown;
+
+        ConvertingBinding(MelchiorFieldContext field, MelchiorWidget<T> widget, ValueConversion conversion) {
+            super(field);
+            this.widget = widget;
+            this.conversion = conversion;
+            this.primitive = field.getFieldType().isPrimitive();
+        }
+
+        @Override public void load(Object bean) {
+            show(accessor.get(bean));
+        }
+
+        @Override public void loadValue(Object value) {
+            show(value);
+        }
+
+        @Override public boolean refresh(Object value) {
+            if (Objects.equals(initial, value) || isModified()) {
+                return false;
+            }
+            show(value);
+            return true;
+        }
+
+        @Override public void store(Object bean) {
+            Object raw = widget.get();
+            Object value = value(raw);
+            if (value == null && primitive) {
+                return;
+            }
+            accessor.set(bean, value);
+            initial = value;
+            shown = raw;
+        }
+
+        @Override public boolean storeIfModified(Object bean) {
+            Object raw = widget.get();
+            if (Objects.equals(shown, raw)) {
+                return false;
+            }
+            Object value = value(raw);
+            if (value == null && primitive) {
+                return false;
+            }
+            shown = raw;
+            if (Objects.equals(initial, value)) {
+                return false;
+            }
+            accessor.set(bean, value);
+            initial = value;
+            return true;
+        }
+
+        @Override public boolean isModified() {
+            return !Objects.equals(shown, widget.get());
+        }
+
+        @Override public Object getValue() {
+            return value(widget.get());
+        }
+
+        @Override public void setValue(Object value) {
+            widget.set(conversion.toWidget(value));
+        }
+
+        @Override public MelchiorWidget<T> widget() {
+            return widget;
+        }
+
+        private void show(Object value) {
+            initial = value;
+            widget.set(conversion.toWidget(value));
+            shown = widget.get();
+        }
+
+        private Object value(Object raw) {
+            try {
+                return conversion.toField(raw);
+            } catch (IllegalArgumentException ex) {
+                throw new MelchiorAccessException(String.format(
+                    "Can't convert value of `%s` to `%s`", field.getName(), conversion.getFieldType().getName()), ex);
+            }
+        }
+
+    }
+
+    private static final class IntBinding<T> extends WidgetBinding<T> {
+
+        private final IntWidget<T> widget;
+        private int initial;
+
+        IntBinding(MelchiorFieldContext field, IntWidget<T> widget) {
+            super(field);
+            this.widget = widget;
+        }
+
+        @Override public void load(Object bean) {
+            initial = accessor.getInt(bean);
+            widget.setInt(initial);
+        }
+
+        @Override public void loadValue(Object value) {
+            initial = ((Number)value).intValue();
+            widget.setInt(initial);
+        }
+
+        @Override public boolean refresh(Object value) {
+            int v = ((Number)value).intValue();
+            if (v == initial || isModified()) {
+                return false;
+            }
+            initial = v;
+            widget.setInt(initial);
+            return true;
+        }
+
+        @Override public void store(Object bean) {
+            initial = widget.getInt();
+            accessor.setInt(bean, initial);
+        }
+
+        @Override public boolean storeIfModified(Object bean) {
+            int value = widget.getInt();
+            if (value == initial) {
+                return false;
+            }
+            accessor.setInt(bean, value);
+            initial = value;
+            return true;
+        }
+
+        @Override public boolean isModified() {
+            return widget.getInt() != initial;
+        }
+
+        @Override public Object getValue() {
+            return widget.getInt();
+        }
+
+        @Override public void setValue(Object value) {
+            widget.setInt(((Number)value).intValue());
+        }
+
+        @Override public MelchiorWidget<T> widget() {
+            return widget;
+        }
+
+    }
+
+    private static final class LongBinding<T> extends WidgetBinding<T> {
+
+        private final LongWidget<T> widget;
+        private long initial;
+
+        LongBinding(MelchiorFieldContext field, LongWidget<T> widget) {
+            super(field);
+            this.widget = widget;
+        }
+
+        @Override public void load(Object bean) {
+            initial = accessor.getLong(bean);
+            widget.setLong(initial);
+        }
+
+        @Override public void loadValue(Object value) {
+            initial = ((Number)value).longValue();
+            widget.setLong(initial);
+        }
+
+        @Override public boolean refresh(Object value) {
+            long v = ((Number)value).longValue();
+            if (v == initial || isModified()) {
+                return false;
+            }
+            initial = v;
+            widget.setLong(initial);
+            return true;
+        }
+
+        @Override public void store(Object bean) {
+            initial = widget.getLong();
+            accessor.setLong(bean, initial);
+        }
+
+        @Override public boolean storeIfModified(Object bean) {
+            long value = widget.getLong();
+            if (value == initial) {
+                return false;
+            }
+            accessor.setLong(bean, value);
+            initial = value;
+            return true;
+        }
+
+        @Override public boolean isModified() {
+            return widget.getLong() != initial;
+        }
+
+        @Override public Object getValue() {
+            return widget.getLong();
+        }
+
+        @Override public void setValue(Object value) {
+            widget.setLong(((Number)value).longValue());
+        }
+
+        @Override public MelchiorWidget<T> widget() {
+            return widget;
+        }
+
+    }
+
+    private static final class DoubleBinding<T> extends WidgetBinding<T> {
+
+        private final DoubleWidget<T> widget;
+        private double initial;
+
+        DoubleBinding(MelchiorFieldContext field, DoubleWidget<T> widget) {
+            super(field);
+            this.widget = widget;
+        }
+
+        @Override public void load(Object bean) {
+            initial = accessor.getDouble(bean);
+            widget.setDouble(initial);
+        }
+
+        @Override public void loadValue(Object value) {
+            initial = ((Number)value).doubleValue();
+            widget.setDouble(initial);
+        }
+
+        @Override public boolean refresh(Object value) {
+            double v = ((Number)value).doubleValue();
+            if (Double.compare(v, initial) == 0 || isModified()) {
+                return false;
+            }
+            initial = v;
+            widget.setDouble(initial);
+            return true;
+        }
+
+        @Override public void store(Object bean) {
+            initial = widget.getDouble();
+            accessor.setDouble(bean, initial);
+        }
+
+        @Override public boolean storeIfModified(Object bean) {
+            double value = widget.getDouble();
+            if (Double.compare(value, initial) == 0) {
+                return false;
+            }
+            accessor.setDouble(bean, value);
+            initial = value;
+            return true;
+        }
+
+        @Override public boolean isModified() {
+            return Double.compare(widget.getDouble(), initial) != 0;
+        }
+
+        @Override public Object getValue() {
+            return widget.getDouble();
+        }
+
+        @Override public void setValue(Object value) {
+            widget.setDouble(((Number)value).doubleValue());
+        }
+
+        @Override public MelchiorWidget<T> widget() {
+            return widget;
+        }
+
+    }
+
+    private static final class BooleanBinding<T> extends WidgetBinding<T> {
+
+        private final BooleanWidget<T> widget;
+        private boolean initial;
+
+        BooleanBinding(MelchiorFieldContext field, BooleanWidget<T> widget) {
+            super(field);
+            this.widget = widget;
+        }
+
+        @Override public void load(Object bean) {
+            initial = accessor.getBoolean(bean);
+            widget.setBoolean(initial);
+        }
+
+        @Override public void loadValue(Object value) {
+            initial = (Boolean)value;
+            widget.setBoolean(initial);
+        }
+
+        @Override public boolean refresh(Object value) {
+            boolean v = (Boolean)value;
+            if (v == initial || isModified()) {
+                return false;
+            }
+            initial = v;
+            widget.setBoolean(initial);
+            return true;
+        }
+
+        @Override public void store(Object bean) {
+            initial = widget.getBoolean();
+            accessor.setBoolean(bean, initial);
+        }
+
+        @Override public boolean storeIfModified(Object bean) {
+            boolean value = widget.getBoolean();
+            if (value == initial) {
+                return false;
+            }
+            accessor.setBoolean(bean, value);
+            initial = value;
+            return true;
+        }
+
+        @Override public boolean isModified() {
+            return widget.getBoolean() != initial;
+        }
+
+        @Override public Object getValue() {
+            return widget.getBoolean();
+        }
+
+        @Override public void setValue(Object value) {
+            widget.setBoolean((Boolean)value);
+        }
+
+        @Override public MelchiorWidget<T> widget() {
+            return widget;
+        }
+
+    }
+
+}
@@ -16,24 +16,55 @@
 
 package com.github.noxchimaera.melchior.core.components;
 
-import java.util.HashMap;
+import com.github.noxchimaera.melchior.core.metrics.MelchiorMetrics;
+import com.github.noxchimaera.melchior.core.metrics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
- * Creates widgets for specified class or id.
+ * Creates widgets for specified class or id. <br>
+ * Widget for class is resolved by walking its hierarchy: the class itself, its superclasses,
+ * implemented interfaces and finally {@code Object}. Result of resolution is memoized per class
+ * until next registration; memo is owned by factory and keeps classes weakly, so it prevents neither
+ * classes from being unloaded nor factory from being collected. <br>
+ * If pooling is enabled (see {@link #setPoolSize(int)}) widgets returned by {@link #release(MelchiorWidget)}
+ * are reused by subsequent requests for the same type.
  *
  * @author Max Balushkin
  */
 public class WidgetFactory<T> {
 
-    private Map<String, Supplier<MelchiorWidget<T>>> factories;
+    private static final Entry NONE = new Entry<>(null, () -> null, null);
+
+    private Map<String, Entry<T>> factories;
+    /**
+     * Resolved factory for each requested class, see {@link Resolution}.
+     */
+    private final Map<Class, Resolution<T>> resolved = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * Incremented by each registration, resolutions made in older versions are stale.
+     */
+    private volatile long version;
+
+    /**
+     * Maximum number of released widgets kept per type, 0 if pooling is disabled.
+     */
+    private volatile int poolSize;
 
     /**
      * Creates empty factory.
      */
     public WidgetFactory() {
-        factories = new HashMap<>();
+        factories = new ConcurrentHashMap<>();
     }
 
     /**
@@ -43,18 +74,105 @@ public class WidgetFactory<T> {
      * @param factory factory
      */
     public void register(String id, Supplier<MelchiorWidget<T>> factory) {
-        factories.put(id, factory);
+        register(id, factory, null);
     }
 
     /**
-     * Creates widget if appropriate factory exists or else returns null.
+     * Registers factory for specified id.
+     *
+     * @param id      factory identifier (e.g. class name)
+     * @param factory factory
+     * @param reset   the operation to restore initial state of released widget before it is reused
+     */
+    public void register(String id, Supplier<MelchiorWidget<T>> factory, Consumer<MelchiorWidget<T>> reset) {
+        factories.put(id, new Entry<>(id, factory, reset));
+        invalidate();
+    }
+
+    private synchronized void invalidate() {
+        ++version;
+        resolved.clear();
+    }
+
+    /**
+     * Registers factory for specified class. <br>
+     * Factory may create specialized widgets, e.g. {@link IntWidget} for {@code int.class}.
+     *
+     * @param cl      class
+     * @param factory factory
+     */
+    public void register(Class cl, Supplier<? extends MelchiorWidget<T>> factory) {
+        register(cl.getName(), factory::get, null);
+    }
+
+    /**
+     * Registers factory for specified class.
+     *
+     * @param cl      class
+     * @param factory factory
+     * @param reset   the operation to restore initial state of released widget before it is reused
+     */
+    public void register(Class cl, Supplier<? extends MelchiorWidget<T>> factory, Consumer<MelchiorWidget<T>> reset) {
+        register(cl.getName(), factory::get, reset);
+    }
+
+    /**
+     * Enables widget pooling. <br>
+     * At most {@code maxPerType} released widgets are kept for each registered factory, excess ones are dropped.
+     *
+     * @param maxPerType pool size, 0 disables pooling
+     */
+    public void setPoolSize(int maxPerType) {
+        if (maxPerType < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative: " + maxPerType);
+        }
+        poolSize = maxPerType;
+        if (maxPerType == 0) {
+            for (Entry<T> e : factories.values()) {
+                e.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns maximum number of released widgets kept per type.
+     *
+     * @return pool size, 0 if pooling is disabled
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Returns widget to pool, so it may be reused. <br>
+     * Widget must not be used by caller after release. Does nothing if pooling is disabled,
+     * pool is full or widget was not created by this factory.
+     *
+     * @param widget widget
+     */
+    public void release(MelchiorWidget<T> widget) {
+        Object origin = widget.origin();
+        int max = poolSize;
+        if (max == 0 || !(origin instanceof Entry)) {
+            return;
+        }
+        Entry<T> e = (Entry<T>)origin;
+        if (factories.get(e.id) != e) {
+            return;
+        }
+        e.release(widget, max);
+    }
+
+    /**
+     * Creates widget if appropriate factory exists or else returns null. <br>
+     * Factory is looked up in class hierarchy, see {@link #find(Class)}.
      *
      * @param cl factory id-class
      *
      * @return widget
      */
     public MelchiorWidget<T> get(Class cl) {
-        return factories.getOrDefault(cl.getName(), () -> null).get();
+        return resolve(cl).create(poolSize);
     }
 
     /**
@@ -65,7 +183,174 @@ public class WidgetFactory<T> {
      * @return widget
      */
     public MelchiorWidget<T> get(String id) {
-        return factories.getOrDefault(id, () -> null).get();
+        return factories.getOrDefault(id, none()).create(poolSize);
+    }
+
+    /**
+     * Creates widget for class using factory registered for the class or its nearest supertype.
+     *
+     * @param cl class
+     *
+     * @return widget or empty optional if there is no appropriate factory
+     */
+    public Optional<MelchiorWidget<T>> find(Class cl) {
+        Entry<T> factory = resolve(cl);
+        return factory == NONE ? Optional.empty() : Optional.ofNullable(factory.create(poolSize));
+    }
+    /**
+     * Whether there is factory for class or its supertype.
+     *
+     * @param cl class
+     *
+     * @return {@code true} if widget can be created
+     */
+    public boolean supports(Class cl) {
+        return resolve(cl) != NONE;
+    }
+
+    private Entry<T> resolve(Class cl) {
+        Resolution<T> r = resolved.get(cl);
+        // version is read before lookup, so lookup racing with registration is tagged as stale
+        long v = version;
+        if (r == null || r.version != v) {
+            r = new Resolution<>(lookup(cl), v);
+            resolved.put(cl, r);
+        }
+        return r.entry;
+    }
+
+    /**
+     * Walks class hierarchy: classes from most specific, then interfaces breadth-first, then {@code Object}.
+     */
+    private Entry<T> lookup(Class cl) {
+        Entry<T> factory = factories.get(cl.getName());
+        if (factory != null) {
+            return factory;
+        }
+        for (Class c = cl.getSuperclass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            factory = factories.get(c.getName());
+            if (factory != null) {
+                return factory;
+            }
+        }
+        if (cl.isArray() && !cl.getComponentType().isPrimitive()) {
+            factory = factories.get(Object[].class.getName());
+            if (factory != null) {
+                return factory;
+            }
+        }
+
+        Set<Class> visited = new HashSet<>();
+        ArrayDeque<Class> queue = new ArrayDeque<>();
+        for (Class c = cl; c != null; c = c.getSuperclass()) {
+            for (Class i : c.getInterfaces()) {
+                queue.add(i);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Class i = queue.poll();
+            if (!visited.add(i)) {
+                continue;
+            }
+            factory = factories.get(i.getName());
+            if (factory != null) {
+                return factory;
+            }
+            for (Class s : i.getInterfaces()) {
+                queue.add(s);
+            }
+        }
+
+        if (!cl.isPrimitive()) {
+            factory = factories.get(Object.class.getName());
+            if (factory != null) {
+                return factory;
+            }
+        }
+        return none();
+    }
+
+    private static <T> Entry<T> none() {
+        return NONE;
+    }
+
+    /**
+     * Factory resolved for class ({@link #NONE} if there is no widget for class)
+     * together with version of registrations it was resolved in.
+     */
+    private static final class Resolution<T> {
+
+        final Entry<T> entry;
+        final long version;
+
+        Resolution(Entry<T> entry, long version) {
+            this.entry = entry;
+            this.version = version;
+        }
+
+    }
+
+    /**
+     * Registered factory with pool of released widgets. Does not refer to widget factory,
+     * so memo of resolutions does not keep it reachable.
+     */
+    private static final class Entry<T> {
+
+        final String id;
+        final Supplier<MelchiorWidget<T>> factory;
+        final Consumer<MelchiorWidget<T>> reset;
+        final ArrayDeque<MelchiorWidget<T>> pool = new ArrayDeque<>();
+
+        Entry(String id, Supplier<MelchiorWidget<T>> factory, Consumer<MelchiorWidget<T>> reset) {
+            this.id = id;
+            this.factory = factory;
+            this.reset = reset;
+        }
+
+        MelchiorWidget<T> create(int poolSize) {
+            if (poolSize > 0) {
+                MelchiorWidget<T> pooled;
+                synchronized (pool) {
+                    pooled = pool.poll();
+                }
+                if (pooled != null) {
+                    return pooled;
+                }
+            }
+            if (this == NONE) {
+                return null;
+            }
+            MelchiorMetrics.Span span = Metrics.begin(MelchiorMetrics.Phase.WIDGET_CREATION, id);
+            MelchiorWidget<T> widget = factory.get();
+            if (widget != null) {
+                widget.origin(this);
+            }
+            span.finish(widget == null ? 0 : 1);
+            return widget;
+        }
+
+        void release(MelchiorWidget<T> widget, int max) {
+            synchronized (pool) {
+                if (pool.size() >= max) {
+                    return;
+                }
+            }
+            if (reset != null) {
+                reset.accept(widget);
+            }
+            synchronized (pool) {
+                if (pool.size() < max) {
+                    pool.push(widget);
+                }
+            }
+        }
+
+        void clear() {
+            synchronized (pool) {
+                pool.clear();
+            }
+        }
+
     }
 
 }
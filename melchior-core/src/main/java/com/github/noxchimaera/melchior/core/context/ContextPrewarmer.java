@@ -0,0 +1,295 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.context;
+
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds class contexts in background, so first form of each class opens without building its context. <br>
+ * For each class the context, form plan, field accessors and validation are built,
+ * and widget factories of field types are resolved if widget factory is specified.
+ * Classes are processed concurrently by fork-join pool.
+ *
+ * @author Max Balushkin
+ */
+public class ContextPrewarmer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextPrewarmer.class);
+
+    private final MelchiorContextCache cache;
+    private final ForkJoinPool pool;
+    private final List<WidgetFactory<?>> factories = new ArrayList<>();
+
+    /**
+     * Creates prewarmer of shared cache which uses common fork-join pool.
+     */
+    public ContextPrewarmer() {
+        this(MelchiorContextCache.shared(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates prewarmer.
+     *
+     * @param cache cache to fill
+     * @param pool  pool which builds contexts
+     */
+    public ContextPrewarmer(MelchiorContextCache cache, ForkJoinPool pool) {
+        this.cache = cache;
+        this.pool = pool;
+    }
+
+    /**
+     * Adds widget factory whose resolution of field types is prewarmed.
+     *
+     * @param factory widget factory
+     *
+     * @return this prewarmer
+     */
+    public synchronized ContextPrewarmer withWidgets(WidgetFactory<?> factory) {
+        factories.add(factory);
+        return this;
+    }
+
+    /**
+     * Starts prewarming of classes without progress listener.
+     *
+     * @param classes classes
+     *
+     * @return progress of prewarming
+     */
+    public Progress start(Collection<Class> classes) {
+        return start(classes, Listener.NONE);
+    }
+
+    /**
+     * Starts prewarming of classes.
+     *
+     * @param classes  classes
+     * @param listener progress listener, called by pool threads
+     *
+     * @return progress of prewarming
+     */
+    public Progress start(Collection<Class> classes, Listener listener) {
+        List<String> names = new ArrayList<>(classes.size());
+        List<ClassSupplier> suppliers = new ArrayList<>(classes.size());
+        for (Class cl : classes) {
+            names.add(cl.getName());
+            suppliers.add(() -> cl);
+        }
+        return start(names, suppliers, listener);
+    }
+
+    /**
+     * Starts prewarming of classes listed in resource. <br>
+     * Resource contains fully qualified class names, one per line; empty lines and lines starting
+     * with {@code #} are ignored. Classes are loaded (without initialization) by pool threads.
+     *
+     * @param loader   class loader of resource and classes
+     * @param resource resource name, e.g. {@code META-INF/melchior/classes}
+     * @param listener progress listener, called by pool threads
+     *
+     * @return progress of prewarming
+     *
+     * @throws IOException if resource can't be read
+     */
+    public Progress start(ClassLoader loader, String resource, Listener listener) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Resource `" + resource + "` is not found");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    names.add(line);
+                }
+            }
+        }
+        List<ClassSupplier> suppliers = new ArrayList<>(names.size());
+        for (String name : names) {
+            suppliers.add(() -> Class.forName(name, false, loader));
+        }
+        return start(names, suppliers, listener);
+    }
+
+    /**
+     * Submits classes to pool. Pool threads see only the factories added before this call.
+     */
+    private Progress start(List<String> names, List<ClassSupplier> classes, Listener listener) {
+        List<WidgetFactory<?>> factories;
+        synchronized (this) {
+            factories = new ArrayList<>(this.factories);
+        }
+        Tally tally = new Tally(names.size());
+        CompletableFuture[] tasks = new CompletableFuture[names.size()];
+        for (int i = 0; i < tasks.length; ++i) {
+            String name = names.get(i);
+            ClassSupplier cl = classes.get(i);
+            tasks[i] = CompletableFuture.runAsync(() -> warm(name, cl, factories, tally, listener), pool);
+        }
+        return new Progress(tally, CompletableFuture.allOf(tasks));
+    }
+
+    private void warm(String name, ClassSupplier cl, List<WidgetFactory<?>> factories, Tally progress, Listener listener) {
+        try {
+            MelchiorClassContext ctx = cache.get(cl.get());
+            MelchiorFormPlan plan = ctx.getPlan();
+            for (int i = 0; i < plan.size(); ++i) {
+                plan.getField(i).getAccessor();
+                for (WidgetFactory<?> factory : factories) {
+                    factory.supports(plan.getWidgetType(i));
+                }
+            }
+            ctx.getValidation();
+            listener.built(name, progress.completed.incrementAndGet(), progress.total);
+        } catch (Exception | LinkageError ex) {
+            LOGGER.warn("Can't prewarm context of `{}`", name, ex);
+            progress.failures.put(name, ex);
+            listener.failed(name, ex, progress.completed.incrementAndGet(), progress.total);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ClassSupplier {
+
+        Class get() throws ClassNotFoundException;
+
+    }
+
+    /**
+     * Listener of prewarming progress. Methods are called by pool threads.
+     */
+    public interface Listener {
+
+        /**
+         * Listener which ignores progress.
+         */
+        Listener NONE = new Listener() { };
+
+        /**
+         * Called when context of class is built.
+         *
+         * @param className class name
+         * @param completed number of processed classes
+         * @param total     total number of classes
+         */
+        default void built(String className, int completed, int total) {
+        }
+
+        /**
+         * Called when context of class can't be built.
+         *
+         * @param className class name
+         * @param error     error
+         * @param completed number of processed classes
+         * @param total     total number of classes
+         */
+        default void failed(String className, Throwable error, int completed, int total) {
+        }
+
+    }
+
+    /**
+     * Counters updated by pool threads.
+     */
+    private static final class Tally {
+
+        final int total;
+        final AtomicInteger completed = new AtomicInteger();
+        final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+        Tally(int total) {
+            this.total = total;
+        }
+
+    }
+
+    /**
+     * Progress of prewarming.
+     */
+    public static final class Progress {
+
+        private final Tally tally;
+        private final CompletableFuture<Void> done;
+
+        Progress(Tally tally, CompletableFuture<Void> done) {
+            this.tally = tally;
+            this.done = done;
+        }
+
+        public int getTotal() {
+            return tally.total;
+        }
+
+        /**
+         * Returns number of processed classes, including failed ones.
+         *
+         * @return number of processed classes
+         */
+        public int getCompleted() {
+            return tally.completed.get();
+        }
+
+        /**
+         * Returns errors of classes which contexts can't be built.
+         *
+         * @return errors by class name
+         */
+        public Map<String, Throwable> getFailures() {
+            return Collections.unmodifiableMap(tally.failures);
+        }
+
+        /**
+         * Returns future completed when all classes are processed. Failures of single classes do not
+         * complete it exceptionally, see {@link #getFailures()}.
+         *
+         * @return future
+         */
+        public CompletableFuture<Void> done() {
+            return done;
+        }
+
+        @Override public String toString() {
+            return "Progress{" +
+                "completed=" + getCompleted() +
+                "/" + tally.total +
+                ", failures=" + tally.failures.keySet() +
+                '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.context;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Fast access to field value of bean. <br>
+ * Primitive methods (e.g. {@link #getInt(Object)}) do not box values
+ * if field has corresponding primitive type, otherwise they convert boxed value.
+ *
+ * @author Max Balushkin
+ */
+public interface FieldAccessor {
+
+    /**
+     * Creates accessor which uses specified methods. <br>
+     * If getter (setter) is {@code null} field is read (written) directly.
+     *
+     * @param field    field
+     * @param getter   field getter, may be {@code null}
+     * @param setter   field setter, may be {@code null}
+     * @param readonly whether field is read only
+     *
+     * @return accessor
+     */
+    static FieldAccessor of(Field field, Method getter, Method setter, boolean readonly) {
+        return MethodHandleAccessor.create(field.getType(), field, getter, setter, readonly);
+    }
+
+    /**
+     * Creates accessor which uses specified methods only.
+     *
+     * @param fieldType field type
+     * @param getter    field getter
+     * @param setter    field setter, {@code null} if field is read only
+     *
+     * @return accessor
+     */
+    static FieldAccessor of(Class fieldType, Method getter, Method setter) {
+        return MethodHandleAccessor.create(fieldType, null, getter, setter, setter == null);
+    }
+
+    /**
+     * Returns field value.
+     *
+     * @param bean object
+     *
+     * @return value
+     */
+    Object get(Object bean);
+
+    /**
+     * Sets field value.
+     *
+     * @param bean  object
+     * @param value new value
+     */
+    void set(Object bean, Object value);
+
+    /**
+     * Whether field value can be changed.
+     *
+     * @return {@code true} if field is writable
+     */
+    boolean isWritable();
+
+    default int getInt(Object bean) {
+        return ((Number)get(bean)).intValue();
+    }
+
+    default void setInt(Object bean, int value) {
+        set(bean, value);
+    }
+
+    default long getLong(Object bean) {
+        return ((Number)get(bean)).longValue();
+    }
+
+    default void setLong(Object bean, long value) {
+        set(bean, value);
+    }
+
+    default double getDouble(Object bean) {
+        return ((Number)get(bean)).doubleValue();
+    }
+
+    default void setDouble(Object bean, double value) {
+        set(bean, value);
+    }
+
+    default boolean getBoolean(Object bean) {
+        return (Boolean)get(bean);
+    }
+
+    default void setBoolean(Object bean, boolean value) {
+        set(bean, value);
+    }
+
+    default float getFloat(Object bean) {
+        return ((Number)get(bean)).floatValue();
+    }
+
+    default void setFloat(Object bean, float value) {
+        set(bean, value);
+    }
+
+    default short getShort(Object bean) {
+        return ((Number)get(bean)).shortValue();
+    }
+
+    default void setShort(Object bean, short value) {
+        set(bean, value);
+    }
+
+    default byte getByte(Object bean) {
+        return ((Number)get(bean)).byteValue();
+    }
+
+    default void setByte(Object bean, byte value) {
+        set(bean, value);
+    }
+
+    default char getChar(Object bean) {
+        return (Character)get(bean);
+    }
+
+    default void setChar(Object bean, char value) {
+        set(bean, value);
+    }
+
+}
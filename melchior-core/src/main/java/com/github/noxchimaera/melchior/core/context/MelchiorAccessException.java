@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.context;
+
+/**
+ * Exception thrown when field value can't be read or written.
+ *
+ * @author Max Balushkin
+ */
+public class MelchiorAccessException extends RuntimeException {
+
+    public MelchiorAccessException() {
+    }
+
+    public MelchiorAccessException(String message) {
+        super(message);
+    }
+
+    public MelchiorAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public MelchiorAccessException(Throwable cause) {
+        super(cause);
+    }
+
+}
@@ -17,13 +17,18 @@
 package com.github.noxchimaera.melchior.core.context;
 
 import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+import com.github.noxchimaera.melchior.core.metrics.MelchiorMetrics;
+import com.github.noxchimaera.melchior.core.metrics.Metrics;
+import com.github.noxchimaera.melchior.core.validation.MelchiorValidation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.github.noxchimaera.melchior.core.commons.StringUtils.*;
 
@@ -37,13 +42,76 @@ public class MelchiorClassContext {
     private static final Logger LOGGER = LoggerFactory.getLogger(MelchiorClassContext.class);
 
     /**
-     * Creates Melchior context of specified class.
+     * Returns Melchior context of specified class. <br>
+     * Context is built once and then taken from {@link MelchiorContextCache#shared() shared cache}.
      *
      * @param ofClass class
      *
      * @return class context
      */
     public static MelchiorClassContext of(Class ofClass) {
+        return MelchiorContextCache.shared().get(ofClass);
+    }
+
+    /**
+     * Creates Melchior context of specified class bypassing cache. <br>
+     * Uses context generated at compile time if it exists, else scans class.
+     * Fields of superclasses are merged in, see {@link #scan(Class)}.
+     *
+     * @param ofClass class
+     *
+     * @return class context
+     */
+    public static MelchiorClassContext create(Class ofClass) {
+        MelchiorMetrics.Span span = Metrics.begin(MelchiorMetrics.Phase.CONTEXT_SCAN, ofClass.getName());
+        MelchiorClassContext generated = generated(ofClass);
+        MelchiorClassContext ctx = generated != null ? inherit(generated) : scan(ofClass);
+        span.finish(ctx.fields.size());
+        return ctx;
+    }
+
+    /**
+     * Creates Melchior context of specified class using provider generated at compile time.
+     *
+     * @param ofClass class
+     *
+     * @return class context or {@code null} if there is no generated provider
+     */
+    public static MelchiorClassContext generated(Class ofClass) {
+        Class providerClass;
+        try {
+            providerClass = Class.forName(ofClass.getName() + MelchiorContextProvider.SUFFIX, true, ofClass.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            return null;
+        }
+        try {
+            MelchiorContextProvider provider = (MelchiorContextProvider)providerClass.newInstance();
+            return provider.create();
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            LOGGER.warn("Can't use generated context of `{}`, falling back to reflection", ofClass.getName(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Creates Melchior context of specified class using reflection. <br>
+     * Annotated fields of superclasses are included: superclass fields go first, field redeclared in subclass
+     * replaces inherited one at its position. Context of superclass is taken from
+     * {@link MelchiorContextCache#shared() shared cache}, so its field contexts are built once and shared
+     * by all subclasses.
+     *
+     * @param ofClass class
+     *
+     * @return class context
+     */
+    public static MelchiorClassContext scan(Class ofClass) {
+        return inherit(scanDeclared(ofClass));
+    }
+
+    /**
+     * Creates context of fields declared by class itself.
+     */
+    private static MelchiorClassContext scanDeclared(Class ofClass) {
         Field[] fields = ofClass.getDeclaredFields();
         List<MelchiorFieldContext> fieldContext = new ArrayList<>(fields.length);
         for (Field field : fields) {
@@ -51,43 +119,109 @@ public class MelchiorClassContext {
             if (f == null) {
                 continue;
             }
-            String getterName = f.readMethod();
-            Method getter = null;
-            if (getterName.trim().isEmpty()) {
-                getterName = "get" + capitalize(field.getName());
-            }
-            try {
-                getter = ofClass.getMethod(getterName);
-            } catch (ReflectiveOperationException ex) {
-                String msg = String.format("Can't find getter for `%s` in `%s`", field.getName(), ofClass.getName());
-                LOGGER.error(msg);
-                throw new MelchiorContextException(msg, ex);
+            Method getter = findMethod(ofClass, field, f.readMethod(), "get", "getter");
+            Method setter = f.readOnly()
+                ? null
+                : findMethod(ofClass, field, f.writeMethod(), "set", "setter", field.getType());
+            FieldAccessor accessor = FieldAccessor.of(field, getter, setter, f.readOnly());
+
+            String label = f.label().trim().isEmpty() ? toReadable(field.getName()) : f.label();
+            Class elementType = MelchiorFieldContext.elementTypeOf(field.getType(), field.getGenericType());
+            MelchiorFieldContext ctx = new MelchiorFieldContext(
+                field.getType(), elementType, field.getName(), label, getter, setter, accessor, f.readOnly(), f.order());
+            fieldContext.add(ctx);
+        }
+        return new MelchiorClassContext(ofClass, fieldContext);
+    }
+
+    /**
+     * Merges fields of superclass context with fields of context of class.
+     *
+     * @param declared context of fields declared by class
+     *
+     * @return context including inherited fields
+     */
+    private static MelchiorClassContext inherit(MelchiorClassContext declared) {
+        Class parent = declared.ofClass.getSuperclass();
+        if (parent == null || !isAnnotated(parent)) {
+            return declared;
+        }
+        List<MelchiorFieldContext> inherited = of(parent).fields;
+        List<MelchiorFieldContext> merged = new ArrayList<>(inherited.size() + declared.fields.size());
+        merged.addAll(inherited);
+        Map<String, Integer> positions = new HashMap<>(inherited.size() * 2);
+        for (int i = 0; i < inherited.size(); ++i) {
+            positions.put(inherited.get(i).getName(), i);
+        }
+        for (MelchiorFieldContext f : declared.fields) {
+            Integer i = positions.get(f.getName());
+            if (i != null) {
+                LOGGER.debug("`{}` of `{}` overrides inherited field", f.getName(), declared.ofClass.getName());
+                merged.set(i, f);
+            } else {
+                merged.add(f);
             }
+        }
+        return new MelchiorClassContext(declared.ofClass, merged);
+    }
 
-            String setterName = f.writeMethod();
-            Method setter = null;
-            if (!f.readOnly()) {
-                if (setterName.trim().isEmpty()) {
-                    setterName = "set" + capitalize(field.getName());
-                }
-                try {
-                    setter = ofClass.getMethod(setterName, field.getType());
-                } catch (ReflectiveOperationException ex) {
-                    String msg = String.format("Can't find setter for `%s` in `%s`", field.getName(), ofClass.getName());
-                    LOGGER.error(msg);
-                    throw new MelchiorContextException(msg, ex);
+    /**
+     * Whether class or its superclasses have fields annotated with {@link MelchiorField},
+     * so it can be edited as nested form. <br>
+     * Unlike {@link #of(Class)} does not build context.
+     *
+     * @param cl class
+     *
+     * @return {@code true} if class has annotated fields
+     */
+    public static boolean isAnnotated(Class cl) {
+        if (cl.isPrimitive() || cl.isArray()) {
+            return false;
+        }
+        for (Class c = cl; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(MelchiorField.class)) {
+                    return true;
                 }
             }
+        }
+        return false;
+    }
 
-            String label = f.label().trim().isEmpty() ? toReadable(field.getName()) : f.label();
-            MelchiorFieldContext ctx = new MelchiorFieldContext(field.getType(), field.getName(), label, getter, setter, f.readOnly(), f.order());
-            fieldContext.add(ctx);
+    /**
+     * Finds getter or setter of field. <br>
+     * If method name is not specified and method named by JavaBeans Conventions does not exist,
+     * returns {@code null} and field will be accessed directly.
+     *
+     * @param ofClass    class
+     * @param field      field
+     * @param name       method name specified in annotation
+     * @param prefix     JavaBeans Conventions method prefix
+     * @param kind       method kind (for error messages)
+     * @param parameters method parameter types
+     *
+     * @return method or {@code null}
+     */
+    private static Method findMethod(Class ofClass, Field field, String name, String prefix, String kind, Class... parameters) {
+        boolean explicit = !name.trim().isEmpty();
+        String methodName = explicit ? name : prefix + capitalize(field.getName());
+        try {
+            return ofClass.getMethod(methodName, parameters);
+        } catch (NoSuchMethodException ex) {
+            if (!explicit) {
+                LOGGER.debug("No {} for `{}` in `{}`, field will be accessed directly", kind, field.getName(), ofClass.getName());
+                return null;
+            }
+            String msg = String.format("Can't find %s for `%s` in `%s`", kind, field.getName(), ofClass.getName());
+            LOGGER.error(msg);
+            throw new MelchiorContextException(msg, ex);
         }
-        return new MelchiorClassContext(ofClass, fieldContext);
     }
 
     private Class ofClass;
     private List<MelchiorFieldContext> fields;
+    private volatile MelchiorFormPlan plan;
+    private volatile MelchiorValidation validation;
 
     /**
      * Creates class context.
@@ -119,6 +253,34 @@ public class MelchiorClassContext {
         return new ArrayList<>(fields);
     }
 
+    /**
+     * Returns form plan of class, compiles it on first call.
+     *
+     * @return form plan
+     */
+    public MelchiorFormPlan getPlan() {
+        MelchiorFormPlan p = plan;
+        if (p == null) {
+            p = new MelchiorFormPlan(this, fields.toArray(new MelchiorFieldContext[fields.size()]));
+            plan = p;
+        }
+        return p;
+    }
+
+    /**
+     * Returns validation of class fields, compiles it on first call.
+     *
+     * @return compiled validation
+     */
+    public MelchiorValidation getValidation() {
+        MelchiorValidation v = validation;
+        if (v == null) {
+            v = MelchiorValidation.compile(getPlan());
+            validation = v;
+        }
+        return v;
+    }
+
     @Override public String toString() {
         return "MelchiorClassContext{" +
             "ofClass=" + ofClass +
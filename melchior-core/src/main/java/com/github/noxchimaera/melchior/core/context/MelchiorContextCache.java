@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.context;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Concurrent cache of class contexts. <br>
+ * Contexts are attached to classes through {@link ClassValue}, so cached entries
+ * do not prevent class loaders from being unloaded. <br>
+ * Each context is built at most once per class (and per invalidation),
+ * even if several threads request it at the same time.
+ *
+ * @author Max Balushkin
+ */
+public class MelchiorContextCache {
+
+    private static final MelchiorContextCache SHARED = new MelchiorContextCache(MelchiorClassContext::create);
+
+    /**
+     * Returns process-wide cache used by {@link MelchiorClassContext#of(Class)}.
+     *
+     * @return shared cache
+     */
+    public static MelchiorContextCache shared() {
+        return SHARED;
+    }
+
+    private final Function<Class, MelchiorClassContext> builder;
+    private final ClassValue<Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Incremented by {@link #invalidateAll()}, entries built in older generations are stale.
+     */
+    private volatile long generation;
+
+    /**
+     * Creates empty cache.
+     *
+     * @param builder the operation to build context of class
+     */
+    public MelchiorContextCache(Function<Class, MelchiorClassContext> builder) {
+        this.builder = builder;
+        this.entries = new ClassValue<Entry>() {
+            @Override protected Entry computeValue(Class<?> type) {
+                return new Entry(type);
+            }
+        };
+    }
+
+    /**
+     * Returns cached context of specified class, builds it if absent.
+     *
+     * @param ofClass class
+     *
+     * @return class context
+     */
+    public MelchiorClassContext get(Class ofClass) {
+        return entries.get(ofClass).get();
+    }
+
+    /**
+     * Returns cached context of specified class without building it.
+     *
+     * @param ofClass class
+     *
+     * @return class context or {@code null} if it is not cached
+     */
+    public MelchiorClassContext peek(Class ofClass) {
+        return entries.get(ofClass).peek();
+    }
+
+    /**
+     * Removes context of specified class. Next request will rebuild it.
+     *
+     * @param ofClass class
+     */
+    public void invalidate(Class ofClass) {
+        entries.remove(ofClass);
+    }
+
+    /**
+     * Removes all cached contexts. Next request for any class will rebuild its context.
+     */
+    public synchronized void invalidateAll() {
+        ++generation;
+    }
+
+    /**
+     * Returns number of requests served from cache.
+     *
+     * @return hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns number of requests which caused context building.
+     *
+     * @return miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Resets hit and miss counters.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override public String toString() {
+        return "MelchiorContextCache{" +
+            "hits=" + getHits() +
+            ", misses=" + getMisses() +
+            '}';
+    }
+
+    /**
+     * Lazily built context of single class.
+     */
+    private final class Entry {
+
+        private final Class ofClass;
+        private volatile Built built;
+
+        Entry(Class ofClass) {
+            this.ofClass = ofClass;
+        }
+
+        MelchiorClassContext peek() {
+            Built b = built;
+            return b != null && b.generation == generation ? b.context : null;
+        }
+
+        MelchiorClassContext get() {
+            MelchiorClassContext ctx = peek();
+            if (ctx != null) {
+                hits.increment();
+                return ctx;
+            }
+            synchronized (this) {
+                ctx = peek();
+                if (ctx != null) {
+                    hits.increment();
+                    return ctx;
+                }
+                misses.increment();
+                long gen = generation;
+                ctx = builder.apply(ofClass);
+                built = new Built(ctx, gen);
+                return ctx;
+            }
+        }
+
+    }
+
+    /**
+     * Context together with cache generation it was built in.
+     */
+    private static final class Built {
+
+        final MelchiorClassContext context;
+        final long generation;
+
+        Built(MelchiorClassContext context, long generation) {
+            this.context = context;
+            this.generation = generation;
+        }
+
+    }
+
+}
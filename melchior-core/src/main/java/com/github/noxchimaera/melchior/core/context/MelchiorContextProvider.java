@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.context;
+
+/**
+ * Provides class context prepared at compile time. <br>
+ * Implementations are generated by {@code melchior-processor} as {@code <BeanClass>_MelchiorContext}
+ * in the package of bean class, and are picked up by {@link MelchiorClassContext#of(Class)}.
+ *
+ * @author Max Balushkin
+ */
+public interface MelchiorContextProvider {
+
+    /**
+     * Suffix of generated provider class name.
+     */
+    String SUFFIX = "_MelchiorContext";
+
+    /**
+     * Creates class context.
+     *
+     * @return class context
+     */
+    MelchiorClassContext create();
+
+}
@@ -16,7 +16,14 @@
 
 package com.github.noxchimaera.melchior.core.context;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
 
 /**
  * Class field context.
@@ -29,6 +36,10 @@ public class MelchiorFieldContext {
      * Field type;
      */
     private Class fieldType;
+    /**
+     * Element type of array or collection field, {@code null} for other fields.
+     */
+    private Class elementType;
 
     /**
      * Name of the field.
@@ -48,6 +59,11 @@ public class MelchiorFieldContext {
      */
     private Method setter;
 
+    /**
+     * Fast field accessor, created on demand if not specified.
+     */
+    private volatile FieldAccessor accessor;
+
     /**
      * Whether field is read only.
      */
@@ -60,19 +76,63 @@ public class MelchiorFieldContext {
     /**
      * Creates new field context.
      *
-     * @param name     field name
-     * @param label    field label
-     * @param getter   field getter
-     * @param setter   field setter
-     * @param readonly whether field is read only
-     * @param order    field order
+     * @param fieldType field type
+     * @param name      field name
+     * @param label     field label
+     * @param getter    field getter
+     * @param setter    field setter
+     * @param readonly  whether field is read only
+     * @param order     field order
      */
     public MelchiorFieldContext(Class fieldType, String name, String label, Method getter, Method setter, boolean readonly, int order) {
+        this(fieldType, name, label, getter, setter, null, readonly, order);
+    }
+
+    /**
+     * Creates new field context.
+     *
+     * @param fieldType field type
+     * @param name      field name
+     * @param label     field label
+     * @param getter    field getter, {@code null} if field is accessed directly
+     * @param setter    field setter, {@code null} if field is read only or accessed directly
+     * @param accessor  field accessor
+     * @param readonly  whether field is read only
+     * @param order     field order
+     */
+    public MelchiorFieldContext(
+        Class fieldType, String name, String label,
+        Method getter, Method setter, FieldAccessor accessor,
+        boolean readonly, int order
+    ) {
+        this(fieldType, elementTypeOf(fieldType, fieldType), name, label, getter, setter, accessor, readonly, order);
+    }
+
+    /**
+     * Creates new field context.
+     *
+     * @param fieldType   field type
+     * @param elementType element type of array or collection field, {@code null} for other fields
+     * @param name        field name
+     * @param label       field label
+     * @param getter      field getter, {@code null} if field is accessed directly
+     * @param setter      field setter, {@code null} if field is read only or accessed directly
+     * @param accessor    field accessor
+     * @param readonly    whether field is read only
+     * @param order       field order
+     */
+    public MelchiorFieldContext(
+        Class fieldType, Class elementType, String name, String label,
+        Method getter, Method setter, FieldAccessor accessor,
+        boolean readonly, int order
+    ) {
         this.fieldType = fieldType;
+        this.elementType = elementType;
         this.name = name;
         this.label = label;
         this.getter = getter;
         this.setter = setter;
+        this.accessor = accessor;
         this.readonly = readonly;
         this.order = order;
     }
@@ -86,6 +146,69 @@ public class MelchiorFieldContext {
         return fieldType;
     }
 
+    /**
+     * Returns element type of array or collection field. <br>
+     * For collections it is resolved from generic type of field, e.g. {@code String} for {@code List<String>},
+     * or {@code Object} if field type is raw.
+     *
+     * @return element type or {@code null} if field is neither array nor collection
+     */
+    public Class getElementType() {
+        return elementType;
+    }
+
+    /**
+     * Whether field is array or collection.
+     *
+     * @return {@code true} if field has elements
+     */
+    public boolean isCollection() {
+        return elementType != null;
+    }
+
+    /**
+     * Resolves element type of array or collection.
+     *
+     * @param type        field type
+     * @param genericType generic field type
+     *
+     * @return element type or {@code null} if type is neither array nor collection
+     */
+    public static Class elementTypeOf(Class type, Type genericType) {
+        if (type.isArray()) {
+            return type.getComponentType();
+        }
+        if (!Collection.class.isAssignableFrom(type)) {
+            return null;
+        }
+        if (genericType instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType)genericType).getActualTypeArguments();
+            if (args.length == 1) {
+                return erasure(args[0]);
+            }
+        }
+        return Object.class;
+    }
+
+    private static Class erasure(Type type) {
+        if (type instanceof Class) {
+            return (Class)type;
+        }
+        if (type instanceof ParameterizedType) {
+            return erasure(((ParameterizedType)type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            return erasure(((WildcardType)type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return erasure(((TypeVariable)type).getBounds()[0]);
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(erasure(((GenericArrayType)type).getGenericComponentType()), 0).getClass();
+        }
+        return Object.class;
+    }
+
     /**
      * Returns field name.
      *
@@ -107,7 +230,7 @@ public class MelchiorFieldContext {
     /**
      * Returns field getter.
      *
-     * @return getter
+     * @return getter or {@code null} if field is accessed directly
      */
     public Method getGetter() {
         return getter;
@@ -116,12 +239,27 @@ public class MelchiorFieldContext {
     /**
      * Returns field setter.
      *
-     * @return setter
+     * @return setter or {@code null} if field is read only or accessed directly
      */
     public Method getSetter() {
         return setter;
     }
 
+    /**
+     * Returns fast field accessor. <br>
+     * Prefer it to {@link #getGetter()} and {@link #getSetter()} when reading or writing values.
+     *
+     * @return accessor
+     */
+    public FieldAccessor getAccessor() {
+        FieldAccessor acc = accessor;
+        if (acc == null) {
+            acc = FieldAccessor.of(fieldType, getter, readonly ? null : setter);
+            accessor = acc;
+        }
+        return acc;
+    }
+
     /**
      * Whether field is read only.
      *
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.context;
+
+import com.github.noxchimaera.melchior.core.annotations.LargeText;
+import com.github.noxchimaera.melchior.core.commons.StringUtils;
+import com.github.noxchimaera.melchior.core.commons.TextSource;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable form plan of class context. <br>
+ * Holds fields in {@code order} sequence with resolved labels, so builders use field indices
+ * instead of sorting fields and looking them up by name each time form is opened.
+ * Plan is compiled once per class context (see {@link MelchiorClassContext#getPlan()}) and may be shared.
+ *
+ * @author Max Balushkin
+ */
+public final class MelchiorFormPlan {
+
+    private final MelchiorClassContext context;
+    private final String title;
+    private final MelchiorFieldContext[] fields;
+    private final String[] labels;
+    private final Class[] widgetTypes;
+    private final boolean[] nested;
+    private final boolean[] largeText;
+    private final Map<String, Integer> indices;
+
+    /**
+     * Compiles form plan.
+     *
+     * @param context class context
+     * @param fields  fields of class
+     */
+    MelchiorFormPlan(MelchiorClassContext context, MelchiorFieldContext[] fields) {
+        this.context = context;
+        this.title = StringUtils.toReadable(context.getOfClass().getSimpleName());
+        this.fields = fields.clone();
+        Arrays.sort(this.fields, Comparator.comparingInt(MelchiorFieldContext::getOrder));
+
+        final int n = this.fields.length;
+        labels = new String[n];
+        widgetTypes = new Class[n];
+        nested = new boolean[n];
+        largeText = new boolean[n];
+        indices = new HashMap<>(n * 2);
+        for (int i = 0; i < n; ++i) {
+            MelchiorFieldContext f = this.fields[i];
+            labels[i] = f.getLabel().isEmpty()
+                ? StringUtils.toReadable(f.getName())
+                : f.getLabel();
+            widgetTypes[i] = f.getFieldType();
+            nested[i] = MelchiorClassContext.isAnnotated(f.getFieldType());
+            largeText[i] = f.getFieldType() == TextSource.class
+                || f.getFieldType() == String.class && isLargeText(context.getOfClass(), f.getName());
+            indices.put(f.getName(), i);
+        }
+    }
+
+    /**
+     * Returns class context of plan.
+     *
+     * @return class context
+     */
+    public MelchiorClassContext getContext() {
+        return context;
+    }
+
+    /**
+     * Returns form title (human-readable class name).
+     *
+     * @return title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Returns number of fields.
+     *
+     * @return number of fields
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Returns field at specified position.
+     *
+     * @param index field index
+     *
+     * @return field context
+     */
+    public MelchiorFieldContext getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Returns label of field at specified position.
+     *
+     * @param index field index
+     *
+     * @return field label
+     */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    /**
+     * Returns type which widget of field is requested for.
+     *
+     * @param index field index
+     *
+     * @return widget type key
+     */
+    public Class getWidgetType(int index) {
+        return widgetTypes[index];
+    }
+
+    /**
+     * Whether field type has annotated fields itself and may be edited as nested form.
+     *
+     * @param index field index
+     *
+     * @return {@code true} if field is nested object
+     */
+    public boolean isNested(int index) {
+        return nested[index];
+    }
+
+    /**
+     * Whether field holds large text, see {@link LargeText}.
+     *
+     * @param index field index
+     *
+     * @return {@code true} if field is large text
+     */
+    public boolean isLargeText(int index) {
+        return largeText[index];
+    }
+
+    private static boolean isLargeText(Class ofClass, String name) {
+        for (Class c = ofClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name).isAnnotationPresent(LargeText.class);
+            } catch (NoSuchFieldException ex) {
+                // look in superclass
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns position of field.
+     *
+     * @param name field name
+     *
+     * @return field index or {@code -1} if there is no such field
+     */
+    public int indexOf(String name) {
+        Integer i = indices.get(name);
+        return i == null ? -1 : i;
+    }
+
+    @Override public String toString() {
+        return "MelchiorFormPlan{" +
+            "title='" + title + '\'' +
+            ", fields=" + Arrays.toString(fields) +
+            '}';
+    }
+
+}
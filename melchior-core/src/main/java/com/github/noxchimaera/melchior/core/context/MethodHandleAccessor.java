@@ -0,0 +1,323 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Field accessor based on pre-bound method handles.
+ *
+ * @author Max Balushkin
+ */
+final class MethodHandleAccessor implements FieldAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    static MethodHandleAccessor create(Class fieldType, Field field, Method getter, Method setter, boolean readonly) {
+        try {
+            MethodHandle get = getter != null
+                ? LOOKUP.unreflect(accessible(getter))
+                : LOOKUP.unreflectGetter(accessible(field));
+
+            MethodHandle set = null;
+            if (!readonly) {
+                set = setter != null
+                    ? LOOKUP.unreflect(accessible(setter))
+                    : LOOKUP.unreflectSetter(accessible(field));
+            }
+            return new MethodHandleAccessor(fieldType, get, set);
+        } catch (IllegalAccessException ex) {
+            throw new MelchiorContextException("Can't access " + (field != null ? field : getter), ex);
+        }
+    }
+
+    private static <A extends AccessibleObject> A accessible(A member) {
+        try {
+            member.setAccessible(true);
+        } catch (SecurityException ex) {
+            // public members are still accessible
+        }
+        return member;
+    }
+
+    private final Class type;
+
+    /**
+     * {@code (Object)Object}
+     */
+    private final MethodHandle getter;
+    /**
+     * {@code (Object, Object)void}, {@code null} if field is read only.
+     */
+    private final MethodHandle setter;
+    /**
+     * {@code (Object)type}
+     */
+    private final MethodHandle typedGetter;
+    /**
+     * {@code (Object, type)void}, {@code null} if field is read only.
+     */
+    private final MethodHandle typedSetter;
+
+    MethodHandleAccessor(Class type, MethodHandle get, MethodHandle set) {
+        this.type = type;
+        typedGetter = get.asType(MethodType.methodType(type, Object.class));
+        getter = typedGetter.asType(MethodType.methodType(Object.class, Object.class));
+        if (set != null) {
+            typedSetter = set.asType(MethodType.methodType(void.class, Object.class, type));
+            setter = typedSetter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } else {
+            typedSetter = null;
+            setter = null;
+        }
+    }
+
+    @Override public Object get(Object bean) {
+        try {
+            return (Object)getter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void set(Object bean, Object value) {
+        try {
+            writable().invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public boolean isWritable() {
+        return setter != null;
+    }
+
+    @Override public int getInt(Object bean) {
+        if (type != int.class) {
+            return FieldAccessor.super.getInt(bean);
+        }
+        try {
+            return (int)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setInt(Object bean, int value) {
+        if (type != int.class) {
+            FieldAccessor.super.setInt(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public long getLong(Object bean) {
+        if (type != long.class) {
+            return FieldAccessor.super.getLong(bean);
+        }
+        try {
+            return (long)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setLong(Object bean, long value) {
+        if (type != long.class) {
+            FieldAccessor.super.setLong(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public double getDouble(Object bean) {
+        if (type != double.class) {
+            return FieldAccessor.super.getDouble(bean);
+        }
+        try {
+            return (double)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setDouble(Object bean, double value) {
+        if (type != double.class) {
+            FieldAccessor.super.setDouble(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public boolean getBoolean(Object bean) {
+        if (type != boolean.class) {
+            return FieldAccessor.super.getBoolean(bean);
+        }
+        try {
+            return (boolean)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setBoolean(Object bean, boolean value) {
+        if (type != boolean.class) {
+            FieldAccessor.super.setBoolean(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public float getFloat(Object bean) {
+        if (type != float.class) {
+            return FieldAccessor.super.getFloat(bean);
+        }
+        try {
+            return (float)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setFloat(Object bean, float value) {
+        if (type != float.class) {
+            FieldAccessor.super.setFloat(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public short getShort(Object bean) {
+        if (type != short.class) {
+            return FieldAccessor.super.getShort(bean);
+        }
+        try {
+            return (short)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setShort(Object bean, short value) {
+        if (type != short.class) {
+            FieldAccessor.super.setShort(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public byte getByte(Object bean) {
+        if (type != byte.class) {
+            return FieldAccessor.super.getByte(bean);
+        }
+        try {
+            return (byte)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setByte(Object bean, byte value) {
+        if (type != byte.class) {
+            FieldAccessor.super.setByte(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public char getChar(Object bean) {
+        if (type != char.class) {
+            return FieldAccessor.super.getChar(bean);
+        }
+        try {
+            return (char)typedGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override public void setChar(Object bean, char value) {
+        if (type != char.class) {
+            FieldAccessor.super.setChar(bean, value);
+            return;
+        }
+        writable();
+        try {
+            typedSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private MethodHandle writable() {
+        if (setter == null) {
+            throw new MelchiorAccessException("Field is read only");
+        }
+        return setter;
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException)t;
+        }
+        if (t instanceof Error) {
+            throw (Error)t;
+        }
+        throw new MelchiorAccessException(t);
+    }
+
+}
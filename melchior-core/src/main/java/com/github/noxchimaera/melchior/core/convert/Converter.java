@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.convert;
+
+/**
+ * Converts value of one type to another.
+ *
+ * @param <S> source type
+ * @param <T> target type
+ *
+ * @author Max Balushkin
+ */
+@FunctionalInterface
+public interface Converter<S, T> {
+
+    /**
+     * Converts value.
+     *
+     * @param value value, never {@code null}
+     *
+     * @return converted value
+     *
+     * @throws IllegalArgumentException if value can't be converted
+     */
+    T convert(S value);
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of converters between types. <br>
+ * Converter for pair of types is resolved as follows: identity if target type is assignable from source type
+ * (primitive types are treated as their wrappers), then converter registered for source type or its nearest
+ * supertype, then built-in conversions: between numeric types (values which do not fit target type, e.g. fractions
+ * for integer types, are rejected with {@link IllegalArgumentException}), from any type to {@code String} and
+ * from {@code String} to numbers, {@code Boolean}, {@code Character} and enums. <br>
+ * Resolution is memoized per pair until next registration.
+ *
+ * @author Max Balushkin
+ */
+public class Converters {
+
+    private static final Converter IDENTITY = value -> value;
+    private static final Converter NONE = value -> {
+        throw new IllegalArgumentException("No converter");
+    };
+
+    private static final Converters SHARED = new Converters();
+
+    /**
+     * Returns process-wide registry.
+     *
+     * @return shared registry
+     */
+    public static Converters shared() {
+        return SHARED;
+    }
+
+    private static final Map<Class, Class> WRAPPERS = new HashMap<>();
+
+    static {
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(double.class, Double.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(short.class, Short.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(boolean.class, Boolean.class);
+    }
+
+    /**
+     * Returns wrapper of primitive type.
+     *
+     * @param cl class
+     *
+     * @return wrapper class if class is primitive, else class itself
+     */
+    public static Class wrap(Class cl) {
+        return cl.isPrimitive() ? WRAPPERS.getOrDefault(cl, cl) : cl;
+    }
+
+    private final Map<Class, Map<Class, Converter>> registered = new ConcurrentHashMap<>();
+    private final Map<Class, Map<Class, Converter>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Registers converter.
+     *
+     * @param from      source type
+     * @param to        target type
+     * @param converter converter
+     * @param <S>       source type
+     * @param <T>       target type
+     */
+    public <S, T> void register(Class<S> from, Class<T> to, Converter<? super S, ? extends T> converter) {
+        registered.computeIfAbsent(wrap(from), k -> new ConcurrentHashMap<>()).put(wrap(to), converter);
+        resolved.clear();
+    }
+
+    /**
+     * Finds converter between types.
+     *
+     * @param from source type
+     * @param to   target type
+     *
+     * @return converter or {@code null} if values of source type can't be converted to target type
+     */
+    public Converter find(Class from, Class to) {
+        Map<Class, Converter> byTarget = resolved.computeIfAbsent(from, k -> new ConcurrentHashMap<>());
+        Converter converter = byTarget.get(to);
+        if (converter == null) {
+            converter = lookup(wrap(from), wrap(to));
+            byTarget.put(to, converter);
+        }
+        return converter == NONE ? null : converter;
+    }
+
+    /**
+     * Whether values of source type can be converted to target type.
+     *
+     * @param from source type
+     * @param to   target type
+     *
+     * @return {@code true} if there is converter
+     */
+    public boolean canConvert(Class from, Class to) {
+        return find(from, to) != null;
+    }
+
+    /**
+     * Returns converter which does nothing.
+     *
+     * @param <T> value type
+     *
+     * @return identity converter
+     */
+    public static <T> Converter<T, T> identity() {
+        return IDENTITY;
+    }
+
+    private Converter lookup(Class from, Class to) {
+        if (to.isAssignableFrom(from)) {
+            return IDENTITY;
+        }
+
+        Set<Class> visited = new HashSet<>();
+        ArrayDeque<Class> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            Class c = queue.poll();
+            if (!visited.add(c)) {
+                continue;
+            }
+            Map<Class, Converter> byTarget = registered.get(c);
+            Converter converter = byTarget == null ? null : byTarget.get(to);
+            if (converter != null) {
+                return converter;
+            }
+            if (c.getSuperclass() != null) {
+                queue.add(c.getSuperclass());
+            }
+            for (Class i : c.getInterfaces()) {
+                queue.add(i);
+            }
+        }
+
+        Converter builtIn = builtIn(from, to);
+        return builtIn != null ? builtIn : NONE;
+    }
+
+    private static Converter builtIn(Class from, Class to) {
+        if (to == String.class) {
+            return String::valueOf;
+        }
+        if (Number.class.isAssignableFrom(from)) {
+            return numeric(to);
+        }
+        if (from == String.class) {
+            return parse(to);
+        }
+        return null;
+    }
+
+    private static Converter<Number, ?> numeric(Class to) {
+        if (to == Integer.class) {
+            return n -> (int)exact(n, to, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        if (to == Long.class) {
+            return n -> exact(n, to, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        if (to == Double.class) {
+            return n -> {
+                double d = n.doubleValue();
+                if (Double.isInfinite(d) && !isInfinite(n)) {
+                    throw lossy(n, to, null);
+                }
+                return d;
+            };
+        }
+        if (to == Float.class) {
+            return n -> {
+                float f = n.floatValue();
+                if (Float.isInfinite(f) && !isInfinite(n)) {
+                    throw lossy(n, to, null);
+                }
+                return f;
+            };
+        }
+        if (to == Short.class) {
+            return n -> (short)exact(n, to, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        if (to == Byte.class) {
+            return n -> (byte)exact(n, to, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        if (to == BigDecimal.class) {
+            return Converters::decimal;
+        }
+        if (to == BigInteger.class) {
+            return n -> {
+                if (isIntegral(n)) {
+                    return BigInteger.valueOf(n.longValue());
+                }
+                try {
+                    return decimal(n).toBigIntegerExact();
+                } catch (ArithmeticException ex) {
+                    throw lossy(n, to, ex);
+                }
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Returns integer value of number if it has no fraction and is within bounds.
+     *
+     * @throws IllegalArgumentException if value does not fit
+     */
+    private static long exact(Number n, Class to, long min, long max) {
+        long value;
+        if (isIntegral(n)) {
+            value = n.longValue();
+        } else {
+            try {
+                value = decimal(n).longValueExact();
+            } catch (ArithmeticException ex) {
+                throw lossy(n, to, ex);
+            }
+        }
+        if (value < min || value > max) {
+            throw lossy(n, to, null);
+        }
+        return value;
+    }
+
+    /**
+     * Returns exact decimal value of number.
+     *
+     * @throws NumberFormatException if number is not finite
+     */
+    private static BigDecimal decimal(Number n) {
+        if (n instanceof BigDecimal) {
+            return (BigDecimal)n;
+        }
+        if (n instanceof BigInteger) {
+            return new BigDecimal((BigInteger)n);
+        }
+        if (isIntegral(n)) {
+            return BigDecimal.valueOf(n.longValue());
+        }
+        return new BigDecimal(n.toString());
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte
+            || n instanceof AtomicInteger || n instanceof AtomicLong;
+    }
+
+    private static boolean isInfinite(Number n) {
+        return (n instanceof Double || n instanceof Float) && Double.isInfinite(n.doubleValue());
+    }
+
+    private static IllegalArgumentException lossy(Number n, Class to, ArithmeticException cause) {
+        return new IllegalArgumentException(String.format(
+            "`%s` can't be converted to `%s` without loss", n, to.getSimpleName()), cause);
+    }
+
+    private static Converter<String, ?> parse(Class to) {
+        if (to == Integer.class) {
+            return s -> Integer.valueOf(s.trim());
+        }
+        if (to == Long.class) {
+            return s -> Long.valueOf(s.trim());
+        }
+        if (to == Double.class) {
+            return s -> Double.valueOf(s.trim());
+        }
+        if (to == Float.class) {
+            return s -> Float.valueOf(s.trim());
+        }
+        if (to == Short.class) {
+            return s -> Short.valueOf(s.trim());
+        }
+        if (to == Byte.class) {
+            return s -> Byte.valueOf(s.trim());
+        }
+        if (to == BigDecimal.class) {
+            return s -> new BigDecimal(s.trim());
+        }
+        if (to == BigInteger.class) {
+            return s -> new BigInteger(s.trim());
+        }
+        if (to == Boolean.class) {
+            return s -> Boolean.valueOf(s.trim());
+        }
+        if (to == Character.class) {
+            return s -> {
+                if (s.length() != 1) {
+                    throw new IllegalArgumentException("Not a character: `" + s + "`");
+                }
+                return s.charAt(0);
+            };
+        }
+        if (to.isEnum()) {
+            return s -> Enum.valueOf(to, s.trim());
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.convert;
+
+/**
+ * Pair of converters between widget value type and field type. <br>
+ * Conversion is resolved once per binding (converters themselves are memoized per pair of types
+ * by {@link Converters}), so transferring value is a single converter call without type checks. Widgets of unknown value type ({@code Object}) are bound without conversion.
+ * {@code null} is passed through in both directions.
+ *
+ * @author Max Balushkin
+ */
+public final class ValueConversion {
+
+    private static final ValueConversion IDENTITY = new ValueConversion(
+        Object.class, Object.class, Converters.identity(), Converters.identity());
+
+    /**
+     * Resolves conversion between widget value type and field type by shared registry of converters.
+     *
+     * @param valueType type of widget value
+     * @param fieldType type of field
+     *
+     * @return conversion
+     *
+     * @throws IllegalArgumentException if values can't be converted in either direction
+     */
+    public static ValueConversion resolve(Class valueType, Class fieldType) {
+        return resolve(Converters.shared(), valueType, fieldType);
+    }
+
+    /**
+     * Resolves conversion between widget value type and field type.
+     *
+     * @param converters registry of converters
+     * @param valueType  type of widget value
+     * @param fieldType  type of field
+     *
+     * @return conversion
+     *
+     * @throws IllegalArgumentException if values can't be converted in either direction
+     */
+    public static ValueConversion resolve(Converters converters, Class valueType, Class fieldType) {
+        if (valueType == Object.class) {
+            return new ValueConversion(valueType, fieldType, Converters.identity(), Converters.identity());
+        }
+        Converter toField = converters.find(valueType, fieldType);
+        Converter toWidget = converters.find(fieldType, valueType);
+        if (toField == null || toWidget == null) {
+            throw new IllegalArgumentException(String.format(
+                "No conversion between `%s` and `%s`", valueType.getName(), fieldType.getName()));
+        }
+        return new ValueConversion(valueType, fieldType, toField, toWidget);
+    }
+
+    /**
+     * Returns conversion which passes values as is.
+     *
+     * @return identity conversion
+     */
+    public static ValueConversion identity() {
+        return IDENTITY;
+    }
+
+    private final Class valueType;
+    private final Class fieldType;
+    private final Converter toField;
+    private final Converter toWidget;
+
+    private ValueConversion(Class valueType, Class fieldType, Converter toField, Converter toWidget) {
+        this.valueType = valueType;
+        this.fieldType = fieldType;
+        this.toField = toField;
+        this.toWidget = toWidget;
+    }
+
+    /**
+     * Converts widget value to field value.
+     *
+     * @param value widget value
+     *
+     * @return field value
+     */
+    public Object toField(Object value) {
+        return value == null ? null : toField.convert(value);
+    }
+
+    /**
+     * Converts field value to widget value.
+     *
+     * @param value field value
+     *
+     * @return widget value
+     */
+    public Object toWidget(Object value) {
+        return value == null ? null : toWidget.convert(value);
+    }
+
+    /**
+     * Whether values are passed as is in both directions.
+     *
+     * @return {@code true} if conversion does nothing
+     */
+    public boolean isIdentity() {
+        return toField == Converters.identity() && toWidget == Converters.identity();
+    }
+
+    /**
+     * Returns type of widget value.
+     *
+     * @return value type
+     */
+    public Class getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Returns type of field.
+     *
+     * @return field type
+     */
+    public Class getFieldType() {
+        return fieldType;
+    }
+
+    @Override public String toString() {
+        return "ValueConversion{" +
+            "valueType=" + valueType.getName() +
+            ", fieldType=" + fieldType.getName() +
+            '}';
+    }
+
+}
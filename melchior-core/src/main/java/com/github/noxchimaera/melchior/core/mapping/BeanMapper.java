@@ -0,0 +1,234 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import com.github.noxchimaera.melchior.core.context.MelchiorAccessException;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorContextException;
+import com.github.noxchimaera.melchior.core.convert.Converters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Maps objects of one type to objects of another using metadata of class contexts. <br>
+ * Mapper is compiled once per pair of types: fields are matched by name, accessors and converters
+ * are resolved in advance, so mapping of each object only reads and writes fields
+ * (fields of the same primitive type are copied without boxing). Mappers are thread-safe.
+ *
+ * @param <S> source type
+ * @param <T> target type
+ *
+ * @author Max Balushkin
+ */
+public abstract class BeanMapper<S, T> {
+
+    private static final ClassValue<BeanMapper> TO_MAP = new ClassValue<BeanMapper>() {
+        @Override protected BeanMapper computeValue(Class<?> type) {
+            return new BeanToMap<>(MelchiorClassContext.of(type));
+        }
+    };
+
+    private static final ClassValue<BeanMapper> FROM_MAP = new ClassValue<BeanMapper>() {
+        @Override protected BeanMapper computeValue(Class<?> type) {
+            return fromMap(type, Converters.shared());
+        }
+    };
+
+    /**
+     * Mappers between classes by source class and then by target class. <br>
+     * Both levels are {@link ClassValue}, so mapper is attached to target class and
+     * source class does not keep classes it was mapped to from being unloaded.
+     */
+    private static final ClassValue<ClassValue<BeanMapper>> BETWEEN = new ClassValue<ClassValue<BeanMapper>>() {
+        @Override protected ClassValue<BeanMapper> computeValue(Class<?> source) {
+            return new ClassValue<BeanMapper>() {
+                @Override protected BeanMapper computeValue(Class<?> target) {
+                    return between(source, target, Converters.shared());
+                }
+            };
+        }
+    };
+
+    /**
+     * Returns mapper of objects to maps of field values by field name. Mapper is cached.
+     *
+     * @param source source class
+     * @param <S>    source type
+     *
+     * @return mapper
+     */
+    public static <S> BeanMapper<S, Map<String, Object>> toMap(Class<S> source) {
+        return TO_MAP.get(source);
+    }
+
+    /**
+     * Returns mapper of maps of field values by field name to objects, using shared converters. Mapper is cached.
+     *
+     * @param target target class
+     * @param <T>    target type
+     *
+     * @return mapper
+     */
+    public static <T> BeanMapper<Map<String, ?>, T> fromMap(Class<T> target) {
+        return FROM_MAP.get(target);
+    }
+
+    /**
+     * Returns mapper of maps of field values by field name to objects. <br>
+     * Values are converted to field types, entries without matching field are ignored.
+     *
+     * @param target     target class
+     * @param converters converters
+     * @param <T>        target type
+     *
+     * @return mapper
+     */
+    public static <T> BeanMapper<Map<String, ?>, T> fromMap(Class<T> target, Converters converters) {
+        return new MapToBean<>(MelchiorClassContext.of(target), converters);
+    }
+
+    /**
+     * Returns mapper between objects, using shared converters. Mapper is cached.
+     *
+     * @param source source class
+     * @param target target class
+     * @param <S>    source type
+     * @param <T>    target type
+     *
+     * @return mapper
+     */
+    public static <S, T> BeanMapper<S, T> between(Class<S> source, Class<T> target) {
+        return BETWEEN.get(source).get(target);
+    }
+
+    /**
+     * Returns mapper between objects. <br>
+     * Each writable field of target is set from field of source with the same name,
+     * fields without counterpart are left untouched.
+     *
+     * @param source     source class
+     * @param target     target class
+     * @param converters converters
+     * @param <S>        source type
+     * @param <T>        target type
+     *
+     * @return mapper
+     *
+     * @throws MelchiorContextException if there is no converter between types of matched fields
+     */
+    public static <S, T> BeanMapper<S, T> between(Class<S> source, Class<T> target, Converters converters) {
+        return new BeanToBean<>(MelchiorClassContext.of(source), MelchiorClassContext.of(target), converters);
+    }
+
+    /**
+     * Creates empty target object.
+     *
+     * @return new target
+     */
+    public abstract T create();
+
+    /**
+     * Maps source object into existing target object.
+     *
+     * @param source source object
+     * @param target target object
+     */
+    public abstract void map(S source, T target);
+
+    /**
+     * Maps source object to new target object.
+     *
+     * @param source source object
+     *
+     * @return target object
+     */
+    public T map(S source) {
+        T target = create();
+        map(source, target);
+        return target;
+    }
+
+    /**
+     * Maps batch of objects in current thread.
+     *
+     * @param sources source objects
+     *
+     * @return target objects in the same order
+     */
+    public List<T> mapAll(List<? extends S> sources) {
+        List<T> targets = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            targets.add(map(source));
+        }
+        return targets;
+    }
+
+    /**
+     * Maps batch of objects.
+     *
+     * @param sources  source objects
+     * @param parallel if {@code true} objects are mapped in common fork-join pool
+     *
+     * @return target objects in the same order
+     */
+    public List<T> mapAll(List<? extends S> sources, boolean parallel) {
+        if (!parallel) {
+            return mapAll(sources);
+        }
+        List<? extends S> src = sources instanceof RandomAccess ? sources : new ArrayList<>(sources);
+        Object[] targets = new Object[src.size()];
+        IntStream.range(0, targets.length).parallel().forEach(i -> targets[i] = map(src.get(i)));
+        return (List<T>)Arrays.asList(targets);
+    }
+
+    /**
+     * Creates factory of objects, which uses no-arg constructor of class.
+     *
+     * @param cl class
+     *
+     * @return constructor handle of type {@code ()Object}
+     */
+    static MethodHandle constructor(Class cl) {
+        try {
+            Constructor ctor = cl.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException | SecurityException ex) {
+            throw new MelchiorContextException("Can't use no-arg constructor of `" + cl.getName() + "`", ex);
+        }
+    }
+
+    static Object instantiate(MethodHandle ctor) {
+        try {
+            return (Object)ctor.invokeExact();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable t) {
+            throw new MelchiorAccessException(t);
+        }
+    }
+
+}
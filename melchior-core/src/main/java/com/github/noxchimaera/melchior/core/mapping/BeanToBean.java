@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import com.github.noxchimaera.melchior.core.context.FieldAccessor;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorContextException;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.core.convert.Converter;
+import com.github.noxchimaera.melchior.core.convert.Converters;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps object to object of another class, fields are matched by name.
+ *
+ * @author Max Balushkin
+ */
+final class BeanToBean<S, T> extends BeanMapper<S, T> {
+
+    private final MethodHandle constructor;
+    private final Copier[] copiers;
+
+    BeanToBean(MelchiorClassContext source, MelchiorClassContext target, Converters converters) {
+        constructor = constructor(target.getOfClass());
+
+        MelchiorFormPlan from = source.getPlan();
+        MelchiorFormPlan to = target.getPlan();
+        List<Copier> list = new ArrayList<>(to.size());
+        for (int i = 0; i < to.size(); ++i) {
+            MelchiorFieldContext dst = to.getField(i);
+            int j = from.indexOf(dst.getName());
+            if (j < 0 || !dst.getAccessor().isWritable()) {
+                continue;
+            }
+            MelchiorFieldContext src = from.getField(j);
+            Converter converter = converters.find(src.getFieldType(), dst.getFieldType());
+            if (converter == null) {
+                throw new MelchiorContextException(String.format(
+                    "Can't map `%s` of `%s` (%s) to `%s` (%s)",
+                    dst.getName(), source.getOfClass().getName(), src.getFieldType().getName(),
+                    target.getOfClass().getName(), dst.getFieldType().getName()));
+            }
+            list.add(copier(src, dst, converter));
+        }
+        copiers = list.toArray(new Copier[list.size()]);
+    }
+
+    @Override public T create() {
+        return (T)instantiate(constructor);
+    }
+
+    @Override public void map(S source, T target) {
+        for (Copier copier : copiers) {
+            copier.copy(source, target);
+        }
+    }
+
+    private static Copier copier(MelchiorFieldContext src, MelchiorFieldContext dst, Converter converter) {
+        FieldAccessor get = src.getAccessor();
+        FieldAccessor set = dst.getAccessor();
+        Class type = dst.getFieldType();
+        if (type == src.getFieldType() && type.isPrimitive()) {
+            if (type == int.class) {
+                return (s, t) -> set.setInt(t, get.getInt(s));
+            }
+            if (type == long.class) {
+                return (s, t) -> set.setLong(t, get.getLong(s));
+            }
+            if (type == double.class) {
+                return (s, t) -> set.setDouble(t, get.getDouble(s));
+            }
+            if (type == boolean.class) {
+                return (s, t) -> set.setBoolean(t, get.getBoolean(s));
+            }
+            if (type == float.class) {
+                return (s, t) -> set.setFloat(t, get.getFloat(s));
+            }
+            if (type == short.class) {
+                return (s, t) -> set.setShort(t, get.getShort(s));
+            }
+            if (type == byte.class) {
+                return (s, t) -> set.setByte(t, get.getByte(s));
+            }
+            if (type == char.class) {
+                return (s, t) -> set.setChar(t, get.getChar(s));
+            }
+        }
+        if (converter == Converters.identity()) {
+            return type.isPrimitive()
+                ? (s, t) -> {
+                    Object value = get.get(s);
+                    if (value != null) {
+                        set.set(t, value);
+                    }
+                }
+                : (s, t) -> set.set(t, get.get(s));
+        }
+        boolean primitive = type.isPrimitive();
+        return (s, t) -> {
+            Object value = get.get(s);
+            if (value != null) {
+                set.set(t, converter.convert(value));
+            } else if (!primitive) {
+                set.set(t, null);
+            }
+        };
+    }
+
+    /**
+     * Copies value of single field.
+     */
+    @FunctionalInterface
+    private interface Copier {
+
+        void copy(Object source, Object target);
+
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import com.github.noxchimaera.melchior.core.context.FieldAccessor;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps object to map of field values by field name, in order of form plan.
+ *
+ * @author Max Balushkin
+ */
+final class BeanToMap<S> extends BeanMapper<S, Map<String, Object>> {
+
+    private final String[] names;
+    private final FieldAccessor[] accessors;
+    private final int capacity;
+
+    BeanToMap(MelchiorClassContext context) {
+        MelchiorFormPlan plan = context.getPlan();
+        names = new String[plan.size()];
+        accessors = new FieldAccessor[plan.size()];
+        for (int i = 0; i < names.length; ++i) {
+            names[i] = plan.getField(i).getName();
+            accessors[i] = plan.getField(i).getAccessor();
+        }
+        capacity = (int)(names.length / 0.75f) + 1;
+    }
+
+    @Override public Map<String, Object> create() {
+        return new LinkedHashMap<>(capacity);
+    }
+
+    @Override public void map(S source, Map<String, Object> target) {
+        for (int i = 0; i < names.length; ++i) {
+            target.put(names[i], accessors[i].get(source));
+        }
+    }
+
+}
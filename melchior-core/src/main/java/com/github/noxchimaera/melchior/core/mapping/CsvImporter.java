@@ -0,0 +1,378 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import com.github.noxchimaera.melchior.core.context.FieldAccessor;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.core.convert.Converter;
+import com.github.noxchimaera.melchior.core.convert.Converters;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming import of CSV data into objects. <br>
+ * First record is header, columns are matched with fields by name or label (ignoring case),
+ * other columns are ignored. Cells are converted to field types by converters resolved once from header,
+ * empty cells are {@code null} (primitive fields are left untouched). <br>
+ * Input is read in chunks of records by the consuming thread, chunks are parsed in parallel by executor.
+ * At most {@code 2 * parallelism} chunks are in flight, so memory is bounded regardless of input size,
+ * and objects are delivered in input order.
+ *
+ * @param <T> object type
+ *
+ * @author Max Balushkin
+ */
+public class CsvImporter<T> {
+
+    /** Byte order mark, decoded from UTF-8 (and UTF-16) input as first char of header. */
+    private static final String BOM = "\uFEFF";
+
+    private final MelchiorClassContext context;
+    private final MethodHandle constructor;
+
+    private char separator = ',';
+    private Charset charset = StandardCharsets.UTF_8;
+    private int chunkSize = 4096;
+    private Converters converters = Converters.shared();
+    private Executor executor = ForkJoinPool.commonPool();
+    private int parallelism = ForkJoinPool.getCommonPoolParallelism();
+
+    /**
+     * Creates importer of objects of specified class.
+     *
+     * @param type class
+     */
+    public CsvImporter(Class<T> type) {
+        this.context = MelchiorClassContext.of(type);
+        this.constructor = BeanMapper.constructor(type);
+    }
+
+    public void setSeparator(char separator) {
+        this.separator = separator;
+    }
+
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Sets number of records parsed as single task.
+     *
+     * @param chunkSize number of records
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public void setConverters(Converters converters) {
+        this.converters = converters;
+    }
+
+    /**
+     * Sets executor which parses chunks.
+     *
+     * @param executor    executor
+     * @param parallelism number of chunks parsed at the same time
+     */
+    public void setExecutor(Executor executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Imports file, passing objects to callback in batches (one batch per chunk), in input order.
+     * Callback is called in current thread.
+     *
+     * @param file  CSV file
+     * @param batch callback
+     *
+     * @throws IOException if file can't be read
+     * @throws MelchiorImportException if header or record can't be mapped
+     */
+    public void importTo(Path file, Consumer<List<T>> batch) throws IOException {
+        try (Reader reader = open(file)) {
+            importTo(reader, batch);
+        }
+    }
+
+    /**
+     * Imports CSV text, passing objects to callback in batches (one batch per chunk), in input order.
+     * Callback is called in current thread. Reader is not closed.
+     *
+     * @param reader CSV text
+     * @param batch  callback
+     *
+     * @throws IOException if text can't be read
+     * @throws MelchiorImportException if header or record can't be mapped
+     */
+    public void importTo(Reader reader, Consumer<List<T>> batch) throws IOException {
+        try {
+            batches(reader).forEachRemaining(batch);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Returns lazy stream of objects of file in input order. Stream must be closed to release file.
+     *
+     * @param file CSV file
+     *
+     * @return stream of objects
+     *
+     * @throws IOException if file can't be opened or header can't be read
+     */
+    public Stream<T> stream(Path file) throws IOException {
+        Reader reader = open(file);
+        try {
+            Batches batches = batches(reader);
+            return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(List::stream)
+                .onClose(() -> {
+                    batches.cancel();
+                    try {
+                        reader.close();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+        } catch (IOException | RuntimeException ex) {
+            reader.close();
+            throw ex;
+        }
+    }
+
+    private Reader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return Channels.newReader(channel, charset.newDecoder(), -1);
+    }
+
+    private Batches batches(Reader reader) throws IOException {
+        CsvRecords records = new CsvRecords(reader);
+        String header = records.next();
+        if (header == null) {
+            return new Batches(records, null);
+        }
+        if (header.startsWith(BOM)) {
+            header = header.substring(BOM.length());
+        }
+        return new Batches(records, columns(CsvRecords.split(header, separator)));
+    }
+
+    /**
+     * Resolves field accessors and converters of header columns.
+     */
+    private Column[] columns(String[] header) {
+        MelchiorFormPlan plan = context.getPlan();
+        Column[] columns = new Column[header.length];
+        boolean any = false;
+        for (int c = 0; c < header.length; ++c) {
+            String name = header[c].trim();
+            for (int i = 0; i < plan.size(); ++i) {
+                MelchiorFieldContext f = plan.getField(i);
+                if (!name.equalsIgnoreCase(f.getName()) && !name.equalsIgnoreCase(plan.getLabel(i))) {
+                    continue;
+                }
+                if (!f.getAccessor().isWritable()) {
+                    break;
+                }
+                Converter converter = converters.find(String.class, f.getFieldType());
+                if (converter == null) {
+                    throw new MelchiorImportException(String.format(
+                        "Can't convert column `%s` to `%s` of `%s`", name, f.getFieldType().getName(), f.getName()));
+                }
+                columns[c] = new Column(f.getAccessor(), converter, f.getFieldType().isPrimitive());
+                any = true;
+                break;
+            }
+        }
+        if (!any) {
+            throw new MelchiorImportException("No column of CSV matches fields of `" + context.getOfClass().getName() + "`");
+        }
+        return columns;
+    }
+
+    /**
+     * Parses chunk of records.
+     *
+     * @param records records
+     * @param line    number of first record (1-based, header is record 1)
+     */
+    private List<T> parse(List<String> records, long line, Column[] columns) {
+        List<T> beans = new ArrayList<>(records.size());
+        for (int r = 0; r < records.size(); ++r) {
+            String record = records.get(r);
+            if (record.isEmpty()) {
+                continue;
+            }
+            String[] cells = CsvRecords.split(record, separator);
+            T bean = (T)BeanMapper.instantiate(constructor);
+            int n = Math.min(cells.length, columns.length);
+            for (int c = 0; c < n; ++c) {
+                Column column = columns[c];
+                if (column == null) {
+                    continue;
+                }
+                String cell = cells[c];
+                try {
+                    if (cell.isEmpty()) {
+                        if (!column.primitive) {
+                            column.accessor.set(bean, null);
+                        }
+                    } else {
+                        column.accessor.set(bean, column.converter.convert(cell));
+                    }
+                } catch (RuntimeException ex) {
+                    throw new MelchiorImportException(String.format(
+                        "Can't import record %d, column %d: `%s`", line + r, c + 1, cell), ex);
+                }
+            }
+            beans.add(bean);
+        }
+        return beans;
+    }
+
+    /**
+     * Column mapped to field.
+     */
+    private static final class Column {
+
+        final FieldAccessor accessor;
+        final Converter converter;
+        final boolean primitive;
+
+        Column(FieldAccessor accessor, Converter converter, boolean primitive) {
+            this.accessor = accessor;
+            this.converter = converter;
+            this.primitive = primitive;
+        }
+
+    }
+
+    /**
+     * Reads chunks ahead and returns parsed ones in input order.
+     * Without columns (empty input) there are no batches.
+     */
+    private final class Batches implements Iterator<List<T>> {
+
+        private final CsvRecords records;
+        private final Column[] columns;
+        private final ArrayDeque<CompletableFuture<List<T>>> inFlight = new ArrayDeque<>();
+        private final int maxInFlight = 2 * parallelism;
+        private long line = 2;
+        private boolean eof;
+
+        Batches(CsvRecords records, Column[] columns) {
+            this.records = records;
+            this.columns = columns;
+            this.eof = columns == null;
+        }
+
+        @Override public boolean hasNext() {
+            fill();
+            return !inFlight.isEmpty();
+        }
+
+        @Override public List<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return inFlight.poll().get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new MelchiorImportException("Import is interrupted", ex);
+            } catch (ExecutionException ex) {
+                cancel();
+                Throwable cause = ex.getCause() instanceof CompletionException ? ex.getCause().getCause() : ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                }
+                throw new MelchiorImportException(cause);
+            }
+        }
+
+        private void fill() {
+            while (!eof && inFlight.size() < maxInFlight) {
+                List<String> chunk;
+                try {
+                    chunk = records.next(chunkSize);
+                } catch (IOException ex) {
+                    cancel();
+                    throw new UncheckedIOException(ex);
+                }
+                if (chunk.isEmpty()) {
+                    eof = true;
+                    return;
+                }
+                long first = line;
+                line += chunk.size();
+                inFlight.add(CompletableFuture.supplyAsync(() -> parse(chunk, first, columns), executor));
+                if (chunk.size() < chunkSize) {
+                    eof = true;
+                }
+            }
+        }
+
+        /**
+         * Cancels chunks which are not parsed yet and stops reading.
+         */
+        void cancel() {
+            for (CompletableFuture<List<T>> f : inFlight) {
+                f.cancel(false);
+            }
+            inFlight.clear();
+            eof = true;
+        }
+
+    }
+
+}
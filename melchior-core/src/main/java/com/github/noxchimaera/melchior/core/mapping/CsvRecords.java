@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits CSV text into records (RFC 4180: quoted fields may contain separators, line breaks and doubled quotes). <br>
+ * Records are returned as raw text, fields are split by {@link #split(String, char)}, so splitting may be done
+ * by other threads.
+ *
+ * @author Max Balushkin
+ */
+final class CsvRecords {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private final StringBuilder record = new StringBuilder(256);
+
+    CsvRecords(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads next record.
+     *
+     * @return record text without line break or {@code null} at the end of input
+     *
+     * @throws IOException if input can't be read
+     */
+    String next() throws IOException {
+        record.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+        while (true) {
+            if (pos == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return any ? record.toString() : null;
+                }
+            }
+            char c = buffer[pos++];
+            any = true;
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (c == '\n' || c == '\r')) {
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                return record.toString();
+            }
+            record.append(c);
+        }
+    }
+
+    private void skipLineFeed() throws IOException {
+        if (pos == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return;
+            }
+        }
+        if (buffer[pos] == '\n') {
+            ++pos;
+        }
+    }
+
+    /**
+     * Reads up to specified number of records.
+     *
+     * @param max maximum number of records
+     *
+     * @return records, empty at the end of input
+     *
+     * @throws IOException if input can't be read
+     */
+    List<String> next(int max) throws IOException {
+        List<String> records = new ArrayList<>(max);
+        String r;
+        while (records.size() < max && (r = next()) != null) {
+            records.add(r);
+        }
+        return records;
+    }
+
+    /**
+     * Splits record into fields, removes quotes.
+     *
+     * @param record    record text
+     * @param separator field separator
+     *
+     * @return fields
+     */
+    static String[] split(String record, char separator) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int n = record.length();
+        for (int i = 0; i < n; ++i) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < n && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        ++i;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[fields.size()]);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import com.github.noxchimaera.melchior.core.context.FieldAccessor;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.core.convert.Converter;
+import com.github.noxchimaera.melchior.core.convert.Converters;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+
+/**
+ * Maps map of field values by field name to object. <br>
+ * Converter is resolved by runtime class of value (resolution is memoized by converter registry).
+ *
+ * @author Max Balushkin
+ */
+final class MapToBean<T> extends BeanMapper<Map<String, ?>, T> {
+
+    private final MelchiorClassContext context;
+    private final MethodHandle constructor;
+    private final Converters converters;
+
+    private final String[] names;
+    private final Class[] types;
+    private final FieldAccessor[] accessors;
+
+    MapToBean(MelchiorClassContext context, Converters converters) {
+        this.context = context;
+        this.constructor = constructor(context.getOfClass());
+        this.converters = converters;
+
+        MelchiorFormPlan plan = context.getPlan();
+        int n = 0;
+        for (int i = 0; i < plan.size(); ++i) {
+            if (plan.getField(i).getAccessor().isWritable()) {
+                ++n;
+            }
+        }
+        names = new String[n];
+        types = new Class[n];
+        accessors = new FieldAccessor[n];
+        for (int i = 0, k = 0; i < plan.size(); ++i) {
+            MelchiorFieldContext f = plan.getField(i);
+            if (f.getAccessor().isWritable()) {
+                names[k] = f.getName();
+                types[k] = f.getFieldType();
+                accessors[k] = f.getAccessor();
+                ++k;
+            }
+        }
+    }
+
+    @Override public T create() {
+        return (T)instantiate(constructor);
+    }
+
+    @Override public void map(Map<String, ?> source, T target) {
+        for (int i = 0; i < names.length; ++i) {
+            Object value = source.get(names[i]);
+            if (value == null) {
+                if (!types[i].isPrimitive() && source.containsKey(names[i])) {
+                    accessors[i].set(target, null);
+                }
+                continue;
+            }
+            Converter converter = converters.find(value.getClass(), types[i]);
+            if (converter == null) {
+                throw new IllegalArgumentException(String.format(
+                    "Can't convert `%s` to `%s` of `%s` in `%s`",
+                    value.getClass().getName(), types[i].getName(), names[i], context.getOfClass().getName()));
+            }
+            accessors[i].set(target, converter.convert(value));
+        }
+    }
+
+}
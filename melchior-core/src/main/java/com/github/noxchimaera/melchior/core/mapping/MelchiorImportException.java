@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+/**
+ * Exception thrown when imported data can't be read or mapped to objects.
+ *
+ * @author Max Balushkin
+ */
+public class MelchiorImportException extends RuntimeException {
+
+    public MelchiorImportException() {
+    }
+
+    public MelchiorImportException(String message) {
+        super(message);
+    }
+
+    public MelchiorImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public MelchiorImportException(Throwable cause) {
+        super(cause);
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.metrics;
+
+/**
+ * Instrumentation of Melchior lifecycle phases. <br>
+ * Implementation is installed with {@link Metrics#install(MelchiorMetrics)}, by default phases are not measured
+ * and instrumented code does not allocate.
+ *
+ * @author Max Balushkin
+ */
+public interface MelchiorMetrics {
+
+    /**
+     * Implementation which measures nothing.
+     */
+    MelchiorMetrics NONE = new MelchiorMetrics() {
+        @Override public Span begin(Phase phase, String subject) {
+            return Span.NONE;
+        }
+
+        @Override public String toString() {
+            return "MelchiorMetrics.NONE";
+        }
+    };
+
+    /**
+     * Starts measuring of phase. <br>
+     * Called on the thread which performs the phase, returned span is finished on the same thread.
+     *
+     * @param phase   phase
+     * @param subject class name or widget id the phase is performed for
+     *
+     * @return started span
+     */
+    Span begin(Phase phase, String subject);
+
+    /**
+     * Returns metrics which delegate to both specified metrics, e.g. to collect statistics and emit JFR events.
+     *
+     * @param first  first metrics
+     * @param second second metrics
+     *
+     * @return composite metrics
+     */
+    static MelchiorMetrics both(MelchiorMetrics first, MelchiorMetrics second) {
+        if (first == NONE) {
+            return second;
+        }
+        if (second == NONE) {
+            return first;
+        }
+        return (phase, subject) -> {
+            Span a = first.begin(phase, subject);
+            Span b = second.begin(phase, subject);
+            return count -> {
+                b.finish(count);
+                a.finish(count);
+            };
+        };
+    }
+
+    /**
+     * Measured lifecycle phase.
+     */
+    enum Phase {
+
+        /**
+         * Building of class context, i.e. scanning of class or loading of generated context.
+         * Cached lookups are not measured.
+         */
+        CONTEXT_SCAN,
+        /**
+         * Creation of widget by factory, widgets taken from pool are not measured.
+         */
+        WIDGET_CREATION,
+        /**
+         * Creation of form rows and population of widgets with field values.
+         */
+        POPULATION,
+        /**
+         * Layout of form frame, i.e. {@code pack()}.
+         */
+        LAYOUT,
+        /**
+         * Application of modified values to object.
+         */
+        SAVE
+
+    }
+
+    /**
+     * Measurement of single phase execution.
+     */
+    @FunctionalInterface
+    interface Span {
+
+        /**
+         * Span which does nothing.
+         */
+        Span NONE = count -> { };
+
+        /**
+         * Finishes measurement.
+         *
+         * @param count number of processed items (fields, widgets, changed values)
+         */
+        void finish(int count);
+
+    }
+
+}
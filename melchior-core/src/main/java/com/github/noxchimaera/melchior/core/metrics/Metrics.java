@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holder of installed {@link MelchiorMetrics}. <br>
+ * If system property {@code melchior.jfr} is {@code true}, {@code JfrMetrics} are installed at startup. <br>
+ * JDK Flight Recorder backend is compiled separately from the rest of module (it requires JDK 11 or 8u262+),
+ * so it is loaded by name and Melchior keeps working without it.
+ *
+ * @author Max Balushkin
+ */
+public final class Metrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Metrics.class);
+
+    private static final String JFR_METRICS = "com.github.noxchimaera.melchior.core.metrics.JfrMetrics";
+
+    private static volatile MelchiorMetrics installed = MelchiorMetrics.NONE;
+
+    static {
+        if (Boolean.getBoolean("melchior.jfr")) {
+            installed = jfr();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Installs metrics, replacing previously installed ones.
+     *
+     * @param metrics metrics, {@link MelchiorMetrics#NONE} disables instrumentation
+     */
+    public static void install(MelchiorMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics must not be null, use MelchiorMetrics.NONE");
+        }
+        installed = metrics;
+    }
+
+    /**
+     * Returns installed metrics.
+     *
+     * @return metrics
+     */
+    public static MelchiorMetrics get() {
+        return installed;
+    }
+
+    /**
+     * Loads Flight Recorder metrics. Their event classes are loaded by constructor,
+     * so missing {@code jdk.jfr} is detected here rather than in the middle of measured phase.
+     */
+    private static MelchiorMetrics jfr() {
+        try {
+            return (MelchiorMetrics)Class.forName(JFR_METRICS).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            LOGGER.warn("JDK Flight Recorder is not available, Melchior events are disabled", ex);
+            return MelchiorMetrics.NONE;
+        }
+    }
+
+    /**
+     * Starts measuring of phase with installed metrics.
+     *
+     * @param phase   phase
+     * @param subject class name or widget id the phase is performed for
+     *
+     * @return started span
+     */
+    public static MelchiorMetrics.Span begin(MelchiorMetrics.Phase phase, String subject) {
+        return installed.begin(phase, subject);
+    }
+
+}
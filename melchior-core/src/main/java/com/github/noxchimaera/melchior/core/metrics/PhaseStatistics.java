@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics which accumulate count of executions, processed items and execution time of each phase.
+ *
+ * @author Max Balushkin
+ */
+public class PhaseStatistics implements MelchiorMetrics {
+
+    private final Counters[] counters;
+
+    /**
+     * Creates empty statistics.
+     */
+    public PhaseStatistics() {
+        Phase[] phases = Phase.values();
+        counters = new Counters[phases.length];
+        for (int i = 0; i < phases.length; ++i) {
+            counters[i] = new Counters();
+        }
+    }
+
+    @Override public Span begin(Phase phase, String subject) {
+        Counters c = counters[phase.ordinal()];
+        long start = System.nanoTime();
+        return count -> c.add(System.nanoTime() - start, count);
+    }
+
+    /**
+     * Returns number of executions of phase.
+     *
+     * @param phase phase
+     *
+     * @return execution count
+     */
+    public long getCalls(Phase phase) {
+        return counters[phase.ordinal()].calls.sum();
+    }
+
+    /**
+     * Returns number of items processed by all executions of phase.
+     *
+     * @param phase phase
+     *
+     * @return item count
+     */
+    public long getItems(Phase phase) {
+        return counters[phase.ordinal()].items.sum();
+    }
+
+    /**
+     * Returns total execution time of phase.
+     *
+     * @param phase phase
+     *
+     * @return time in nanoseconds
+     */
+    public long getTotalNanos(Phase phase) {
+        return counters[phase.ordinal()].nanos.sum();
+    }
+
+    /**
+     * Returns longest execution time of phase.
+     *
+     * @param phase phase
+     *
+     * @return time in nanoseconds
+     */
+    public long getMaxNanos(Phase phase) {
+        return counters[phase.ordinal()].max.get();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        for (Counters c : counters) {
+            c.reset();
+        }
+    }
+
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("PhaseStatistics{");
+        for (Phase phase : Phase.values()) {
+            if (phase.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(phase).append("=[calls=").append(getCalls(phase))
+                .append(", items=").append(getItems(phase))
+                .append(", totalNanos=").append(getTotalNanos(phase))
+                .append(", maxNanos=").append(getMaxNanos(phase))
+                .append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static final class Counters {
+
+        final LongAdder calls = new LongAdder();
+        final LongAdder items = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void add(long elapsed, int count) {
+            calls.increment();
+            items.add(count);
+            nanos.add(elapsed);
+            max.accumulate(elapsed);
+        }
+
+        void reset() {
+            calls.reset();
+            items.reset();
+            nanos.reset();
+            max.reset();
+        }
+
+    }
+
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.model;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetBinding;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.core.validation.FieldValidation;
+import com.github.noxchimaera.melchior.core.validation.MelchiorValidation;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Form without GUI: holds value of each field of form plan, so object can be populated,
+ * edited, validated and saved without display (e.g. in batch jobs or tests). <br>
+ * Widgets may be attached to fields, then value of field is held by widget and transferred
+ * through {@link WidgetBinding}, as in GUI forms. Model always holds, returns and compares
+ * values of field type, widget values are converted by binding. <br>
+ * Model is not thread-safe.
+ *
+ * @param <T> object type
+ *
+ * @author Max Balushkin
+ */
+public class FormModel<T> {
+
+    /**
+     * Creates model of object and populates it with values of object.
+     *
+     * @param bean object
+     * @param <T>  object type
+     *
+     * @return form model
+     */
+    public static <T> FormModel<T> of(T bean) {
+        FormModel<T> model = new FormModel<>(MelchiorClassContext.of(bean.getClass()));
+        model.populate(bean);
+        return model;
+    }
+
+    private final MelchiorClassContext context;
+    private final MelchiorFormPlan plan;
+
+    /**
+     * Values indexed as fields of plan, stale for fields with attached widgets.
+     */
+    private final Object[] values;
+    /**
+     * Values loaded or saved last time, indexed as fields of plan.
+     */
+    private final Object[] initial;
+    /**
+     * Bindings of attached widgets indexed as fields of plan, {@code null} for detached fields.
+     */
+    private final WidgetBinding[] bindings;
+
+    /**
+     * Creates empty model, all values are {@code null}.
+     *
+     * @param context class context
+     */
+    public FormModel(MelchiorClassContext context) {
+        this.context = context;
+        this.plan = context.getPlan();
+        values = new Object[plan.size()];
+        initial = new Object[plan.size()];
+        bindings = new WidgetBinding[plan.size()];
+    }
+
+    public MelchiorFormPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Loads values of all fields from object. Loaded values become unmodified values.
+     *
+     * @param bean object
+     */
+    public void populate(T bean) {
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = plan.getField(i).getAccessor().get(bean);
+            initial[i] = values[i];
+            if (bindings[i] != null) {
+                bindings[i].loadValue(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns value of field.
+     *
+     * @param i field index in form plan
+     *
+     * @return field value
+     */
+    public Object get(int i) {
+        return bindings[i] != null ? bindings[i].getValue() : values[i];
+    }
+
+    /**
+     * Returns value of field.
+     *
+     * @param field field name
+     *
+     * @return field value
+     */
+    public Object get(String field) {
+        return get(index(field));
+    }
+
+    /**
+     * Sets value of field (and of attached widget).
+     *
+     * @param i     field index in form plan
+     * @param value field value
+     */
+    public void set(int i, Object value) {
+        if (bindings[i] != null) {
+            bindings[i].setValue(value);
+        } else {
+            values[i] = value;
+        }
+    }
+
+    /**
+     * Sets value of field (and of attached widget).
+     *
+     * @param field field name
+     * @param value field value
+     */
+    public void set(String field, Object value) {
+        set(index(field), value);
+    }
+
+    /**
+     * Whether value of field differs from value loaded or saved last time.
+     *
+     * @param i field index in form plan
+     *
+     * @return {@code true} if field is modified
+     */
+    public boolean isModified(int i) {
+        return bindings[i] != null ? bindings[i].isModified() : !Objects.equals(values[i], initial[i]);
+    }
+
+    /**
+     * Whether any editable field is modified since values were loaded or saved.
+     *
+     * @return {@code true} if model has unsaved changes
+     */
+    public boolean isModified() {
+        for (int i = 0; i < values.length; ++i) {
+            if (!plan.getField(i).isReadonly() && isModified(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Restores values loaded or saved last time.
+     */
+    public void reset() {
+        for (int i = 0; i < values.length; ++i) {
+            set(i, initial[i]);
+        }
+    }
+
+    /**
+     * Sets modified editable fields of object. Saved values become unmodified values.
+     *
+     * @param bean object
+     *
+     * @return names of changed fields
+     */
+    public Set<String> save(T bean) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (int i = 0; i < values.length; ++i) {
+            MelchiorFieldContext field = plan.getField(i);
+            if (field.isReadonly()) {
+                continue;
+            }
+            if (bindings[i] != null) {
+                if (bindings[i].storeIfModified(bean)) {
+                    initial[i] = bindings[i].getValue();
+                    changed.add(field.getName());
+                }
+            } else if (!Objects.equals(values[i], initial[i])) {
+                field.getAccessor().set(bean, values[i]);
+                initial[i] = values[i];
+                changed.add(field.getName());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Compares model with object.
+     *
+     * @param bean object
+     *
+     * @return names of fields whose values differ from values of object
+     */
+    public Set<String> diff(T bean) {
+        Set<String> different = new LinkedHashSet<>();
+        for (int i = 0; i < values.length; ++i) {
+            MelchiorFieldContext field = plan.getField(i);
+            if (!Objects.equals(get(i), field.getAccessor().get(bean))) {
+                different.add(field.getName());
+            }
+        }
+        return different;
+    }
+
+    /**
+     * Validates values of model, including expensive validators, in current thread.
+     *
+     * @return error messages by field name, empty if model is valid
+     */
+    public Map<String, String> validate() {
+        MelchiorValidation validation = context.getValidation();
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (validation.isEmpty()) {
+            return errors;
+        }
+        Function<String, Object> fields = name -> {
+            int i = plan.indexOf(name);
+            return i < 0 ? null : get(i);
+        };
+        for (int i = 0; i < values.length; ++i) {
+            FieldValidation f = validation.get(i);
+            if (!f.isValidated()) {
+                continue;
+            }
+            Object value = get(i);
+            String msg = f.validate(value, fields);
+            if (msg == null) {
+                msg = f.validateAsync(value, fields);
+            }
+            if (msg != null) {
+                errors.put(f.getName(), msg);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Attaches widget to field. Widget shows current value of field and holds it until detached.
+     *
+     * @param field  field name
+     * @param widget widget
+     * @param <W>    GUI component type
+     */
+    public <W> void attach(String field, MelchiorWidget<W> widget) {
+        int i = index(field);
+        detach(i);
+        WidgetBinding<W> binding = WidgetBinding.of(plan.getField(i), widget);
+        binding.loadValue(initial[i]);
+        if (!Objects.equals(values[i], initial[i])) {
+            binding.setValue(values[i]);
+        }
+        bindings[i] = binding;
+    }
+
+    /**
+     * Detaches widget from field, model keeps current value of widget.
+     *
+     * @param field field name
+     *
+     * @return detached widget or {@code null} if there was no widget
+     */
+    public MelchiorWidget<?> detach(String field) {
+        return detach(index(field));
+    }
+
+    private MelchiorWidget<?> detach(int i) {
+        WidgetBinding<?> binding = bindings[i];
+        if (binding == null) {
+            return null;
+        }
+        values[i] = binding.getValue();
+        bindings[i] = null;
+        return binding.widget();
+    }
+
+    private int index(String field) {
+        int i = plan.indexOf(field);
+        if (i < 0) {
+            throw new IllegalArgumentException(String.format(
+                "No field `%s` in `%s`", field, context.getOfClass().getName()));
+        }
+        return i;
+    }
+
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("FormModel{");
+        for (int i = 0; i < values.length; ++i) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(plan.getField(i).getName()).append('=').append(get(i));
+        }
+        return sb.append('}').toString();
+    }
+
+}
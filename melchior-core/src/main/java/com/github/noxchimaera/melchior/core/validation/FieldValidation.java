@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.validation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+/**
+ * Compiled validator chain of single field. <br>
+ * Cheap validators are run first, expensive (asynchronous) ones only if cheap validators have passed.
+ *
+ * @author Max Balushkin
+ */
+public final class FieldValidation {
+
+    private final int index;
+    private final String name;
+    private final Validator[] validators;
+    private final Validator[] asyncValidators;
+    private final List<String> dependencies;
+    /**
+     * Indices of fields which depend on this one, filled once during compilation.
+     */
+    int[] dependents = new int[0];
+
+    FieldValidation(int index, String name, Validator[] validators, Validator[] asyncValidators, String[] dependencies) {
+        this.index = index;
+        this.name = name;
+        this.validators = validators;
+        this.asyncValidators = asyncValidators;
+        this.dependencies = Collections.unmodifiableList(Arrays.asList(dependencies));
+    }
+
+    /**
+     * Returns index of field in form plan.
+     *
+     * @return field index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Whether field has any validators.
+     *
+     * @return {@code true} if field is validated
+     */
+    public boolean isValidated() {
+        return validators.length > 0 || asyncValidators.length > 0;
+    }
+
+    /**
+     * Whether field has expensive validators which should be run off the Event Dispatch Thread.
+     *
+     * @return {@code true} if there are asynchronous validators
+     */
+    public boolean isAsync() {
+        return asyncValidators.length > 0;
+    }
+
+    /**
+     * Runs cheap validators.
+     *
+     * @param value  field value
+     * @param fields values of fields this one depends on
+     *
+     * @return first error message or {@code null} if value is valid
+     */
+    public String validate(Object value, Function<String, Object> fields) {
+        for (Validator v : validators) {
+            String msg = v.validate(value, fields);
+            if (msg != null) {
+                return msg;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs expensive validators. Stops if current thread is interrupted.
+     *
+     * @param value  field value
+     * @param fields values of fields this one depends on
+     *
+     * @return first error message or {@code null} if value is valid
+     *
+     * @throws CancellationException if thread was interrupted
+     */
+    public String validateAsync(Object value, Function<String, Object> fields) {
+        for (Validator v : asyncValidators) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Validation of `" + name + "` is cancelled");
+            }
+            String msg = v.validate(value, fields);
+            if (msg != null) {
+                return msg;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns names of fields which validation of this field depends on.
+     *
+     * @return field names
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Returns number of fields which should be revalidated when this field changes.
+     *
+     * @return number of dependent fields
+     */
+    public int dependentCount() {
+        return dependents.length;
+    }
+
+    /**
+     * Returns index of dependent field.
+     *
+     * @param i index of dependent (from 0 to {@link #dependentCount()})
+     *
+     * @return field index in form plan
+     */
+    public int getDependent(int i) {
+        return dependents[i];
+    }
+
+    @Override public String toString() {
+        return "FieldValidation{" +
+            "name='" + name + '\'' +
+            ", validators=" + validators.length +
+            ", asyncValidators=" + asyncValidators.length +
+            ", dependencies=" + dependencies +
+            '}';
+    }
+
+}
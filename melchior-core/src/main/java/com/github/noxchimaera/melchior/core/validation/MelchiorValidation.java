@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.validation;
+
+import com.github.noxchimaera.melchior.core.annotations.DependsOn;
+import com.github.noxchimaera.melchior.core.annotations.Pattern;
+import com.github.noxchimaera.melchior.core.annotations.Range;
+import com.github.noxchimaera.melchior.core.annotations.Required;
+import com.github.noxchimaera.melchior.core.annotations.ValidatedBy;
+import com.github.noxchimaera.melchior.core.context.MelchiorContextException;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Validator chains of all fields of form plan, compiled once from constraint annotations
+ * ({@link Required}, {@link Range}, {@link Pattern}, {@link ValidatedBy}, {@link DependsOn}). <br>
+ * Chains are indexed as fields of plan. Compiled validation is immutable and may be shared by threads.
+ *
+ * @author Max Balushkin
+ */
+public final class MelchiorValidation {
+
+    /**
+     * Compiles validation of form plan.
+     *
+     * @param plan form plan
+     *
+     * @return compiled validation
+     */
+    public static MelchiorValidation compile(MelchiorFormPlan plan) {
+        Class ofClass = plan.getContext().getOfClass();
+        int n = plan.size();
+        FieldValidation[] fields = new FieldValidation[n];
+        boolean empty = true;
+        for (int i = 0; i < n; ++i) {
+            String name = plan.getField(i).getName();
+            Field field = findField(ofClass, name);
+
+            List<Validator> validators = new ArrayList<>();
+            List<Validator> asyncValidators = new ArrayList<>();
+            String[] dependencies = new String[0];
+            if (field != null) {
+                Required required = field.getAnnotation(Required.class);
+                if (required != null) {
+                    validators.add(required(message(required.message(), "Value is required")));
+                }
+                Range range = field.getAnnotation(Range.class);
+                if (range != null) {
+                    validators.add(range(range.min(), range.max(), message(range.message(),
+                        String.format("Value must be between %s and %s", format(range.min()), format(range.max())))));
+                }
+                Pattern pattern = field.getAnnotation(Pattern.class);
+                if (pattern != null) {
+                    try {
+                        validators.add(pattern(pattern.value(), message(pattern.message(),
+                            "Value must match " + pattern.value())));
+                    } catch (PatternSyntaxException ex) {
+                        throw new MelchiorContextException(String.format(
+                            "Invalid pattern of `%s` in `%s`", name, ofClass.getName()), ex);
+                    }
+                }
+                ValidatedBy custom = field.getAnnotation(ValidatedBy.class);
+                if (custom != null) {
+                    for (Class<? extends Validator> cl : custom.value()) {
+                        (custom.async() ? asyncValidators : validators).add(instantiate(cl, ofClass, name));
+                    }
+                }
+                DependsOn dependsOn = field.getAnnotation(DependsOn.class);
+                if (dependsOn != null) {
+                    dependencies = dependsOn.value();
+                }
+            }
+            empty &= validators.isEmpty() && asyncValidators.isEmpty();
+            fields[i] = new FieldValidation(i, name,
+                validators.toArray(new Validator[validators.size()]),
+                asyncValidators.toArray(new Validator[asyncValidators.size()]),
+                dependencies);
+        }
+
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; ++i) {
+            for (String dependency : fields[i].getDependencies()) {
+                int j = plan.indexOf(dependency);
+                if (j < 0) {
+                    throw new MelchiorContextException(String.format(
+                        "`%s` in `%s` depends on unknown field `%s`", fields[i].getName(), ofClass.getName(), dependency));
+                }
+                dependents.get(j).add(i);
+            }
+        }
+        for (int i = 0; i < n; ++i) {
+            fields[i].dependents = dependents.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new MelchiorValidation(plan, fields, empty);
+    }
+
+    private final MelchiorFormPlan plan;
+    private final FieldValidation[] fields;
+    private final boolean empty;
+
+    private MelchiorValidation(MelchiorFormPlan plan, FieldValidation[] fields, boolean empty) {
+        this.plan = plan;
+        this.fields = fields;
+        this.empty = empty;
+    }
+
+    /**
+     * Whether no field has validators.
+     *
+     * @return {@code true} if there is nothing to validate
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Returns number of fields.
+     *
+     * @return number of fields
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Returns validation of field.
+     *
+     * @param i field index in form plan
+     *
+     * @return field validation
+     */
+    public FieldValidation get(int i) {
+        return fields[i];
+    }
+
+    /**
+     * Validates all fields of object in current thread, including expensive validators.
+     *
+     * @param bean object
+     *
+     * @return error messages by field name, empty if object is valid
+     */
+    public Map<String, String> validate(Object bean) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < fields.length; ++i) {
+            FieldValidation f = fields[i];
+            if (!f.isValidated()) {
+                continue;
+            }
+            // as in forms, validator sees only fields it depends on
+            Function<String, Object> values = name -> {
+                int d = f.getDependencies().contains(name) ? plan.indexOf(name) : -1;
+                return d < 0 ? null : plan.getField(d).getAccessor().get(bean);
+            };
+            Object value = plan.getField(i).getAccessor().get(bean);
+            String msg = f.validate(value, values);
+            if (msg == null) {
+                msg = f.validateAsync(value, values);
+            }
+            if (msg != null) {
+                errors.put(f.getName(), msg);
+            }
+        }
+        return errors;
+    }
+
+    @Override public String toString() {
+        return "MelchiorValidation{" +
+            "ofClass=" + plan.getContext().getOfClass().getName() +
+            ", empty=" + empty +
+            '}';
+    }
+
+    private static Field findField(Class ofClass, String name) {
+        for (Class c = ofClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ex) {
+                // look in superclass
+            }
+        }
+        return null;
+    }
+
+    private static Validator instantiate(Class<? extends Validator> cl, Class ofClass, String field) {
+        try {
+            return cl.newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new MelchiorContextException(String.format(
+                "Can't create validator `%s` of `%s` in `%s`", cl.getName(), field, ofClass.getName()), ex);
+        }
+    }
+
+    private static String message(String specified, String fallback) {
+        return specified.trim().isEmpty() ? fallback : specified;
+    }
+
+    private static String format(double d) {
+        return d == Math.rint(d) && !Double.isInfinite(d) ? String.valueOf((long)d) : String.valueOf(d);
+    }
+
+    private static Validator required(String message) {
+        return (value, fields) -> {
+            boolean empty = value == null
+                || value instanceof CharSequence && ((CharSequence)value).toString().trim().isEmpty()
+                || value instanceof Collection && ((Collection)value).isEmpty()
+                || value.getClass().isArray() && Array.getLength(value) == 0;
+            return empty ? message : null;
+        };
+    }
+
+    private static Validator range(double min, double max, String message) {
+        return (value, fields) -> {
+            double d;
+            if (value == null) {
+                return null;
+            } else if (value instanceof Number) {
+                d = ((Number)value).doubleValue();
+            } else {
+                String s = value.toString().trim();
+                if (s.isEmpty()) {
+                    return null;
+                }
+                try {
+                    d = Double.parseDouble(s);
+                } catch (NumberFormatException ex) {
+                    return "Value must be a number";
+                }
+            }
+            return d < min || d > max ? message : null;
+        };
+    }
+
+    private static Validator pattern(String regexp, String message) {
+        java.util.regex.Pattern compiled = java.util.regex.Pattern.compile(regexp);
+        return (value, fields) -> value == null || compiled.matcher(value.toString()).matches() ? null : message;
+    }
+
+}
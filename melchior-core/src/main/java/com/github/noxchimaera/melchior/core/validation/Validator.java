@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.core.validation;
+
+import java.util.function.Function;
+
+/**
+ * Validator of field value, see {@link com.github.noxchimaera.melchior.core.annotations.ValidatedBy}. <br>
+ * Validator is shared by all forms of class, so it must be thread-safe. Asynchronous validators are
+ * interrupted when their result becomes stale, long-running ones should respond to interruption.
+ *
+ * @author Max Balushkin
+ */
+@FunctionalInterface
+public interface Validator {
+
+    /**
+     * Validates field value.
+     *
+     * @param value  field value
+     * @param fields values of fields listed in {@link com.github.noxchimaera.melchior.core.annotations.DependsOn}
+     *               by name, {@code null} for other fields
+     *
+     * @return error message or {@code null} if value is valid
+     */
+    String validate(Object value, Function<String, Object> fields);
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.components;
+
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.core.sample.Account;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Max Balushkin
+ */
+public class WidgetBindingTest {
+
+    private static MelchiorFieldContext field(String name) {
+        MelchiorFormPlan plan = MelchiorClassContext.of(Account.class).getPlan();
+        return plan.getField(plan.indexOf(name));
+    }
+
+    @Test public void intBinding() {
+        AtomicInteger cmpt = new AtomicInteger();
+        WidgetBinding<AtomicInteger> binding = WidgetBinding.of(
+            field("age"), new IntWidget<>(cmpt, AtomicInteger::get, AtomicInteger::set));
+        Account bean = new Account("John", 23, 100, 0.5, true);
+
+        binding.load(bean);
+        assertEquals(23, cmpt.get());
+        assertFalse(binding.isModified());
+        assertFalse(binding.storeIfModified(bean));
+
+        cmpt.set(30);
+        assertTrue(binding.isModified());
+        assertEquals(30, binding.getValue());
+        assertTrue(binding.storeIfModified(bean));
+        assertEquals(30, bean.getAge());
+        assertFalse(binding.isModified());
+
+        binding.setValue(41L);
+        assertEquals(41, cmpt.get());
+        binding.store(bean);
+        assertEquals(41, bean.getAge());
+        assertFalse(binding.isModified());
+    }
+
+    @Test public void longBinding() {
+        AtomicLong cmpt = new AtomicLong();
+        WidgetBinding<AtomicLong> binding = WidgetBinding.of(
+            field("balance"), new LongWidget<>(cmpt, AtomicLong::get, AtomicLong::set));
+        Account bean = new Account("John", 23, 100, 0.5, true);
+
+        binding.load(bean);
+        assertEquals(100, cmpt.get());
+        assertFalse(binding.isModified());
+
+        binding.setValue(7);
+        assertEquals(7L, binding.getValue());
+        assertTrue(binding.isModified());
+        assertTrue(binding.storeIfModified(bean));
+        assertEquals(7, bean.getBalance());
+        assertFalse(binding.storeIfModified(bean));
+    }
+
+    @Test public void doubleBinding() {
+        double[] cmpt = new double[1];
+        WidgetBinding<double[]> binding = WidgetBinding.of(
+            field("rate"), new DoubleWidget<>(cmpt, c -> c[0], (c, v) -> c[0] = v));
+        Account bean = new Account("John", 23, 100, 0.5, true);
+
+        binding.load(bean);
+        assertEquals(0.5, cmpt[0], 0);
+        assertFalse(binding.isModified());
+
+        cmpt[0] = 0.75;
+        assertTrue(binding.isModified());
+        assertEquals(0.75, binding.getValue());
+        assertTrue(binding.storeIfModified(bean));
+        assertEquals(0.75, bean.getRate(), 0);
+        assertFalse(binding.isModified());
+    }
+
+    @Test public void booleanBinding() {
+        AtomicBoolean cmpt = new AtomicBoolean();
+        WidgetBinding<AtomicBoolean> binding = WidgetBinding.of(
+            field("active"), new BooleanWidget<>(cmpt, AtomicBoolean::get, AtomicBoolean::set));
+        Account bean = new Account("John", 23, 100, 0.5, true);
+
+        binding.load(bean);
+        assertTrue(cmpt.get());
+        assertFalse(binding.isModified());
+
+        binding.setValue(false);
+        assertEquals(false, binding.getValue());
+        assertTrue(binding.isModified());
+        binding.store(bean);
+        assertFalse(bean.isActive());
+        assertFalse(binding.isModified());
+        assertFalse(binding.storeIfModified(bean));
+    }
+
+    @Test public void loadValueResetsModification() {
+        AtomicInteger cmpt = new AtomicInteger();
+        WidgetBinding<AtomicInteger> binding = WidgetBinding.of(
+            field("age"), new IntWidget<>(cmpt, AtomicInteger::get, AtomicInteger::set));
+        binding.loadValue(5);
+        cmpt.set(6);
+        assertTrue(binding.isModified());
+        assertFalse(binding.refresh(7));
+        assertEquals(6, cmpt.get());
+
+        binding.loadValue(6);
+        assertFalse(binding.isModified());
+        assertTrue(binding.refresh(7));
+        assertEquals(7, cmpt.get());
+        assertFalse(binding.isModified());
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.components;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Max Balushkin
+ */
+public class WidgetFactoryTest {
+
+    private static MelchiorWidget<String> widget(String name) {
+        return new MelchiorWidget<>(name, cmpt -> null, (cmpt, o) -> { });
+    }
+
+    @Test public void resolvesNearestSupertype() {
+        WidgetFactory<String> factory = new WidgetFactory<>();
+        factory.register(Object.class, () -> widget("object"));
+        factory.register(Collection.class, () -> widget("collection"));
+        factory.register(Number.class, () -> widget("number"));
+
+        assertEquals("number", factory.get(Integer.class).javaComponent());
+        assertEquals("collection", factory.get(ArrayList.class).javaComponent());
+        assertEquals("object", factory.get(String.class).javaComponent());
+        assertFalse(factory.supports(int.class));
+        assertNull(factory.get(int.class));
+    }
+
+    @Test public void registrationInvalidatesResolution() {
+        WidgetFactory<String> factory = new WidgetFactory<>();
+        factory.register(Collection.class, () -> widget("collection"));
+        assertEquals("collection", factory.get(ArrayList.class).javaComponent());
+        assertFalse(factory.supports(int.class));
+
+        factory.register(List.class, () -> widget("list"));
+        factory.register(int.class, () -> widget("int"));
+        assertEquals("list", factory.get(ArrayList.class).javaComponent());
+        assertTrue(factory.supports(int.class));
+    }
+
+    @Test public void resolutionDoesNotRetainFactory() throws InterruptedException {
+        WeakReference<WidgetFactory<String>> ref = resolvedFactory();
+        for (int i = 0; i < 100 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+
+    private static WeakReference<WidgetFactory<String>> resolvedFactory() {
+        WidgetFactory<String> factory = new WidgetFactory<>();
+        factory.setPoolSize(2);
+        factory.register(CharSequence.class, () -> widget("text"));
+        factory.release(factory.get(String.class));
+        assertTrue(factory.find(StringBuilder.class).isPresent());
+        assertFalse(factory.supports(int.class));
+        return new WeakReference<>(factory);
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.convert;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Max Balushkin
+ */
+public class ValueConversionTest {
+
+    @Test public void convertsBothWays() {
+        ValueConversion conversion = ValueConversion.resolve(String.class, int.class);
+        assertFalse(conversion.isIdentity());
+        assertEquals(String.class, conversion.getValueType());
+        assertEquals(int.class, conversion.getFieldType());
+        assertEquals(42, conversion.toField("42"));
+        assertEquals("42", conversion.toWidget(42));
+    }
+
+    @Test public void widenedNumbers() {
+        ValueConversion conversion = ValueConversion.resolve(Integer.class, long.class);
+        assertEquals(7L, conversion.toField(7));
+        assertEquals(7, conversion.toWidget(7L));
+    }
+
+    @Test public void numbersWhichFit() {
+        ValueConversion conversion = ValueConversion.resolve(double.class, int.class);
+        assertEquals(3, conversion.toField(3.0));
+        assertEquals(3.0, conversion.toWidget(3));
+        assertEquals((byte)-128, ValueConversion.resolve(long.class, byte.class).toField(-128L));
+        assertEquals(0.5f, ValueConversion.resolve(double.class, float.class).toField(0.5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFraction() {
+        ValueConversion.resolve(double.class, int.class).toField(3.7);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOverflow() {
+        ValueConversion.resolve(long.class, int.class).toField(1L << 31);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNotFinite() {
+        ValueConversion.resolve(double.class, long.class).toField(Double.NaN);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFloatOverflow() {
+        ValueConversion.resolve(double.class, float.class).toField(1e300);
+    }
+
+    @Test public void passesNull() {
+        ValueConversion conversion = ValueConversion.resolve(String.class, Integer.class);
+        assertNull(conversion.toField(null));
+        assertNull(conversion.toWidget(null));
+    }
+
+    @Test public void identityOfAssignableTypes() {
+        assertTrue(ValueConversion.resolve(String.class, String.class).isIdentity());
+        assertTrue(ValueConversion.resolve(int.class, Integer.class).isIdentity());
+        assertTrue(ValueConversion.identity().isIdentity());
+    }
+
+    @Test public void objectValueIsNotConverted() {
+        ValueConversion conversion = ValueConversion.resolve(Object.class, int.class);
+        assertTrue(conversion.isIdentity());
+        assertEquals("42", conversion.toField("42"));
+    }
+
+    @Test public void customConverters() {
+        Converters converters = new Converters();
+        converters.register(String.class, Boolean.class, s -> s.equals("yes"));
+        converters.register(Boolean.class, String.class, b -> b ? "yes" : "no");
+        ValueConversion conversion = ValueConversion.resolve(converters, String.class, boolean.class);
+        assertEquals(true, conversion.toField("yes"));
+        assertEquals("no", conversion.toWidget(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingConversion() {
+        ValueConversion.resolve(Integer.class, List.class);
+    }
+
+}
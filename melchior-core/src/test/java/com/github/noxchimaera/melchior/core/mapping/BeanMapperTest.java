@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+import com.github.noxchimaera.melchior.core.sample.Account;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Max Balushkin
+ */
+public class BeanMapperTest {
+
+    public static class Sample {
+        @MelchiorField(order = 0) public float weight = 1.5f;
+        @MelchiorField(order = 1) public short count = 7;
+        @MelchiorField(order = 2) public byte level = 3;
+        @MelchiorField(order = 3) public char grade = 'B';
+        @MelchiorField(order = 4) public int size = 42;
+        @MelchiorField(order = 5) public String code = "17";
+    }
+
+    public static class SampleCopy {
+        @MelchiorField(order = 0) public float weight;
+        @MelchiorField(order = 1) public short count;
+        @MelchiorField(order = 2) public byte level;
+        @MelchiorField(order = 3) public char grade;
+        @MelchiorField(order = 4) public long size;
+        @MelchiorField(order = 5) public Integer code;
+    }
+
+    @Test public void toMapAndBack() {
+        Account account = new Account("John", 23, 100, 0.5, true);
+        Map<String, Object> map = BeanMapper.toMap(Account.class).map(account);
+        assertEquals("John", map.get("name"));
+        assertEquals(23, map.get("age"));
+        assertEquals(100L, map.get("balance"));
+
+        map.put("age", "31");
+        Account copy = BeanMapper.fromMap(Account.class).map(map);
+        assertEquals("John", copy.getName());
+        assertEquals(31, copy.getAge());
+        assertEquals(100, copy.getBalance());
+        assertEquals(0.5, copy.getRate(), 0);
+        assertTrue(copy.isActive());
+    }
+
+    @Test public void fromMapIgnoresUnknownEntries() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "Jane");
+        map.put("unknown", 1);
+        Account account = BeanMapper.fromMap(Account.class).map(map);
+        assertEquals("Jane", account.getName());
+        assertEquals(0, account.getAge());
+    }
+
+    @Test public void copiesPrimitivesAndConverts() {
+        SampleCopy copy = BeanMapper.between(Sample.class, SampleCopy.class).map(new Sample());
+        assertEquals(1.5f, copy.weight, 0);
+        assertEquals(7, copy.count);
+        assertEquals(3, copy.level);
+        assertEquals('B', copy.grade);
+        assertEquals(42L, copy.size);
+        assertEquals(Integer.valueOf(17), copy.code);
+    }
+
+    @Test public void betweenIsCached() {
+        assertSame(BeanMapper.between(Sample.class, SampleCopy.class), BeanMapper.between(Sample.class, SampleCopy.class));
+        assertNotSame(BeanMapper.between(Sample.class, SampleCopy.class), BeanMapper.between(Sample.class, Sample.class));
+    }
+
+    @Test public void mapsAll() {
+        List<Account> source = Arrays.asList(new Account("A", 1, 1, 0, false), new Account("B", 2, 2, 0, true));
+        List<Map<String, Object>> maps = BeanMapper.toMap(Account.class).mapAll(source, true);
+        assertEquals(2, maps.size());
+        assertEquals("A", maps.get(0).get("name"));
+        assertEquals("B", maps.get(1).get("name"));
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.mapping;
+
+import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+import com.github.noxchimaera.melchior.core.sample.Account;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Max Balushkin
+ */
+public class CsvImporterTest {
+
+    public static class Counted {
+        static final AtomicInteger created = new AtomicInteger();
+
+        @MelchiorField(order = 0) public String name;
+
+        public Counted() {
+            created.incrementAndGet();
+        }
+    }
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Account> read(String csv) throws IOException {
+        List<Account> accounts = new ArrayList<>();
+        new CsvImporter<>(Account.class).importTo(new StringReader(csv), accounts::addAll);
+        return accounts;
+    }
+
+    @Test public void mapsColumnsByName() throws IOException {
+        List<Account> accounts = read("Age,NAME,unknown,active\n23,John,x,true\n31,Jane,y,false\n");
+        assertEquals(2, accounts.size());
+        assertEquals("John", accounts.get(0).getName());
+        assertEquals(23, accounts.get(0).getAge());
+        assertTrue(accounts.get(0).isActive());
+        assertEquals("Jane", accounts.get(1).getName());
+        assertFalse(accounts.get(1).isActive());
+    }
+
+    @Test public void quotedCells() throws IOException {
+        List<Account> accounts = read("name,age\n\"Smith, John\",23\n\"say \"\"hi\"\"\",31\n\"\",40\n");
+        assertEquals("Smith, John", accounts.get(0).getName());
+        assertEquals("say \"hi\"", accounts.get(1).getName());
+        assertNull(accounts.get(2).getName());
+        assertEquals(40, accounts.get(2).getAge());
+    }
+
+    @Test public void multilineCells() throws IOException {
+        List<Account> accounts = read("name,age\n\"first\nsecond\",23\n\"a,\n\nb\",31\n");
+        assertEquals(2, accounts.size());
+        assertEquals("first\nsecond", accounts.get(0).getName());
+        assertEquals(23, accounts.get(0).getAge());
+        assertEquals("a,\n\nb", accounts.get(1).getName());
+        assertEquals(31, accounts.get(1).getAge());
+    }
+
+    @Test public void crlfLineBreaks() throws IOException {
+        List<Account> accounts = read("name,age\r\nJohn,23\r\n\"multi\r\nline\",31\r\nJane,40");
+        assertEquals(3, accounts.size());
+        assertEquals("John", accounts.get(0).getName());
+        assertEquals(23, accounts.get(0).getAge());
+        assertEquals("multi\r\nline", accounts.get(1).getName());
+        assertEquals(31, accounts.get(1).getAge());
+        assertEquals("Jane", accounts.get(2).getName());
+        assertEquals(40, accounts.get(2).getAge());
+    }
+
+    @Test public void emptyCells() throws IOException {
+        List<Account> accounts = read("name,age\n,\n\nJohn,\n");
+        assertEquals(2, accounts.size());
+        assertNull(accounts.get(0).getName());
+        assertEquals(0, accounts.get(0).getAge());
+        assertEquals("John", accounts.get(1).getName());
+    }
+
+    @Test public void keepsOrderAcrossChunks() throws IOException {
+        StringBuilder csv = new StringBuilder("name,age\n");
+        for (int i = 0; i < 1000; ++i) {
+            csv.append('n').append(i).append(',').append(i).append('\n');
+        }
+        CsvImporter<Account> importer = new CsvImporter<>(Account.class);
+        importer.setChunkSize(7);
+        List<Account> accounts = new ArrayList<>();
+        importer.importTo(new StringReader(csv.toString()), accounts::addAll);
+        assertEquals(1000, accounts.size());
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(i, accounts.get(i).getAge());
+        }
+    }
+
+    @Test public void reportsRecordOfInvalidCell() throws IOException {
+        try {
+            read("name,age\nJohn,23\nJane,old\n");
+            fail();
+        } catch (MelchiorImportException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("record 3"));
+        }
+    }
+
+    @Test(expected = MelchiorImportException.class)
+    public void rejectsUnmatchedHeader() throws IOException {
+        read("foo,bar\n1,2\n");
+    }
+
+    @Test public void emptyInput() throws IOException {
+        assertTrue(read("").isEmpty());
+    }
+
+    @Test public void skipsByteOrderMark() throws IOException {
+        Path file = folder.newFile("bom.csv").toPath();
+        Files.write(file, "\uFEFFname,age\nJohn,23\n".getBytes(StandardCharsets.UTF_8));
+        try (Stream<Account> accounts = new CsvImporter<>(Account.class).stream(file)) {
+            List<String> names = accounts.map(Account::getName).collect(Collectors.toList());
+            assertEquals(1, names.size());
+            assertEquals("John", names.get(0));
+        }
+
+        List<Account> accounts = read("\uFEFFage,name\n31,Jane\n");
+        assertEquals(31, accounts.get(0).getAge());
+    }
+
+    @Test public void closingStreamCancelsPendingChunks() throws IOException {
+        Path file = folder.newFile("pending.csv").toPath();
+        Files.write(file, "name\na\nb\nc\nd\n".getBytes(StandardCharsets.UTF_8));
+        List<Runnable> pending = new ArrayList<>();
+        CsvImporter<Counted> importer = new CsvImporter<>(Counted.class);
+        importer.setChunkSize(1);
+        importer.setExecutor(task -> {
+            if (Counted.created.get() == 0) {
+                task.run();
+            } else {
+                pending.add(task);
+            }
+        }, 2);
+
+        Stream<Counted> stream = importer.stream(file);
+        Iterator<Counted> it = stream.iterator();
+        assertEquals("a", it.next().name);
+        assertEquals(3, pending.size());
+        stream.close();
+
+        pending.forEach(Runnable::run);
+        assertEquals(1, Counted.created.get());
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.model;
+
+import com.github.noxchimaera.melchior.core.components.IntWidget;
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.sample.Account;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Max Balushkin
+ */
+public class FormModelTest {
+
+    /**
+     * Headless text widget.
+     */
+    private static MelchiorWidget<StringBuilder> textWidget() {
+        return new MelchiorWidget<>(
+            new StringBuilder(),
+            String.class,
+            StringBuilder::toString,
+            (sb, o) -> sb.replace(0, sb.length(), o == null ? "" : (String)o)
+        );
+    }
+
+    @Test public void populateEditDiffSave() {
+        Account bean = new Account("John", 23, 100, 0.5, true);
+        FormModel<Account> model = FormModel.of(bean);
+        assertFalse(model.isModified());
+        assertEquals(Collections.emptySet(), model.diff(bean));
+
+        model.set("name", "Jane");
+        model.set("balance", 250L);
+        assertTrue(model.isModified(model.getPlan().indexOf("name")));
+        assertFalse(model.isModified(model.getPlan().indexOf("age")));
+        assertEquals(new HashSet<>(Arrays.asList("name", "balance")), model.diff(bean));
+        assertEquals("John", bean.getName());
+
+        assertEquals(new HashSet<>(Arrays.asList("name", "balance")), model.save(bean));
+        assertEquals("Jane", bean.getName());
+        assertEquals(250L, bean.getBalance());
+        assertFalse(model.isModified());
+        assertEquals(Collections.emptySet(), model.diff(bean));
+        assertEquals(Collections.emptySet(), model.save(bean));
+
+        bean.setAge(40);
+        assertEquals(Collections.singleton("age"), model.diff(bean));
+        model.populate(bean);
+        assertEquals(40, model.get("age"));
+        assertEquals(Collections.emptySet(), model.diff(bean));
+    }
+
+    @Test public void resetRestoresLoadedValues() {
+        Account bean = new Account("John", 23, 100, 0.5, true);
+        FormModel<Account> model = FormModel.of(bean);
+        model.set("name", "Jane");
+        model.set("active", false);
+        model.reset();
+        assertFalse(model.isModified());
+        assertEquals("John", model.get("name"));
+        assertEquals(true, model.get("active"));
+    }
+
+    @Test public void attachedWidgetGivesSameAnswers() {
+        Account bean = new Account("John", 23, 100, 0.5, true);
+        FormModel<Account> model = FormModel.of(bean);
+        model.set("age", 24);
+
+        AtomicInteger cmpt = new AtomicInteger();
+        IntWidget<AtomicInteger> age = new IntWidget<>(cmpt, AtomicInteger::get, AtomicInteger::set);
+        model.attach("age", age);
+        assertEquals(24, cmpt.get());
+        assertTrue(model.isModified(model.getPlan().indexOf("age")));
+        assertEquals(Collections.singleton("age"), model.diff(bean));
+
+        cmpt.set(23);
+        assertFalse(model.isModified());
+        assertEquals(Collections.emptySet(), model.save(bean));
+
+        cmpt.set(50);
+        assertEquals(Collections.singleton("age"), model.save(bean));
+        assertEquals(50, bean.getAge());
+        assertEquals(Collections.emptySet(), model.diff(bean));
+        assertSame(age, model.detach("age"));
+        assertEquals(50, model.get("age"));
+        assertFalse(model.isModified());
+    }
+
+    @Test public void convertedFieldRoundTrip() {
+        Account bean = new Account("John", 23, 100, 0.5, true);
+        FormModel<Account> model = FormModel.of(bean);
+        MelchiorWidget<StringBuilder> age = textWidget();
+        model.attach("age", age);
+
+        assertEquals("23", age.javaComponent().toString());
+        assertEquals(23, model.get("age"));
+        assertFalse(model.isModified());
+        assertEquals(Collections.emptySet(), model.diff(bean));
+
+        model.set("age", 30);
+        assertEquals("30", age.javaComponent().toString());
+        assertEquals(30, model.get("age"));
+        assertTrue(model.isModified());
+        assertEquals(Collections.singleton("age"), model.diff(bean));
+
+        age.set(" 31 ");
+        assertEquals(Collections.singleton("age"), model.save(bean));
+        assertEquals(31, bean.getAge());
+        assertFalse(model.isModified());
+        assertEquals(Collections.emptySet(), model.diff(bean));
+
+        model.detach("age");
+        assertEquals(31, model.get("age"));
+        assertFalse(model.isModified());
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.sample;
+
+import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+
+/**
+ * @author Max Balushkin
+ */
+public class Account {
+
+    @MelchiorField(order = 0)
+    private String name;
+    @MelchiorField(order = 1)
+    private int age;
+    @MelchiorField(order = 2)
+    private long balance;
+    @MelchiorField(order = 3)
+    private double rate;
+    @MelchiorField(order = 4)
+    private boolean active;
+
+    public Account() {
+    }
+
+    public Account(String name, int age, long balance, double rate, boolean active) {
+        this.name = name;
+        this.age = age;
+        this.balance = balance;
+        this.rate = rate;
+        this.active = active;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public void setBalance(long balance) {
+        this.balance = balance;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    @Override public String toString() {
+        return "Account{" +
+            "name='" + name + '\'' +
+            ", age=" + age +
+            ", balance=" + balance +
+            ", rate=" + rate +
+            ", active=" + active +
+            '}';
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.noxchimaera.melchior.core.validation;
+
+import com.github.noxchimaera.melchior.core.annotations.DependsOn;
+import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+import com.github.noxchimaera.melchior.core.annotations.ValidatedBy;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Max Balushkin
+ */
+public class MelchiorValidationTest {
+
+    public static class Range {
+        @MelchiorField(order = 0) public int min = 1;
+        @MelchiorField(order = 1) public int max = 5;
+        @MelchiorField(order = 2) public String note = "note";
+
+        @MelchiorField(order = 3)
+        @DependsOn("max")
+        @ValidatedBy(WithinMax.class)
+        public int value = 3;
+    }
+
+    public static class WithinMax implements Validator {
+        @Override public String validate(Object value, Function<String, Object> fields) {
+            if (fields.apply("min") != null || fields.apply("note") != null) {
+                return "sees undeclared field";
+            }
+            return (Integer)value > (Integer)fields.apply("max") ? "too big" : null;
+        }
+    }
+
+    @Test public void validatorSeesOnlyDependencies() {
+        MelchiorValidation validation = MelchiorClassContext.of(Range.class).getValidation();
+        Range range = new Range();
+        assertEquals(Collections.emptyMap(), validation.validate(range));
+
+        range.value = 7;
+        Map<String, String> errors = validation.validate(range);
+        assertEquals(Collections.singletonMap("value", "too big"), errors);
+    }
+
+}
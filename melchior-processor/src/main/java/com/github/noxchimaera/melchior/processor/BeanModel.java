@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.processor;
+
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+/**
+ * Class with annotated fields.
+ *
+ * @author Max Balushkin
+ */
+class BeanModel {
+
+    final TypeElement bean;
+    final List<FieldModel> fields;
+
+    BeanModel(TypeElement bean, List<FieldModel> fields) {
+        this.bean = bean;
+        this.fields = fields;
+    }
+
+}
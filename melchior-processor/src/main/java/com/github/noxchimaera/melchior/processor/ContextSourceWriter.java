@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.processor;
+
+import javax.lang.model.type.TypeKind;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes source of generated context provider.
+ *
+ * @author Max Balushkin
+ */
+class ContextSourceWriter {
+
+    private final Writer out;
+
+    ContextSourceWriter(Writer out) {
+        this.out = out;
+    }
+
+    void write(String pkg, String className, BeanModel model) throws IOException {
+        String bean = model.bean.getQualifiedName().toString();
+        if (!pkg.isEmpty()) {
+            line("package " + pkg + ";");
+            line("");
+        }
+        line("import com.github.noxchimaera.melchior.core.context.FieldAccessor;");
+        line("import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;");
+        line("import com.github.noxchimaera.melchior.core.context.MelchiorContextProvider;");
+        line("import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;");
+        line("");
+        line("import java.util.ArrayList;");
+        line("import java.util.List;");
+        line("");
+        line("/**");
+        line(" * Melchior context of {@link " + bean + "}, generated by melchior-processor.");
+        line(" */");
+        line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("public final class " + className + " implements MelchiorContextProvider {");
+        line("");
+        line("    @Override public MelchiorClassContext create() {");
+        line("        List<MelchiorFieldContext> fields = new ArrayList<>(" + model.fields.size() + ");");
+        for (FieldModel f : model.fields) {
+            writeField(bean, f);
+        }
+        line("        return new MelchiorClassContext(" + bean + ".class, fields);");
+        line("    }");
+        line("");
+        line("}");
+    }
+
+    private void writeField(String bean, FieldModel f) throws IOException {
+        String type = f.erasure.toString();
+        boolean primitive = f.type.getKind().isPrimitive();
+        String boxed = primitive ? boxed(f.type.getKind()) : type;
+        String target = "((" + bean + ")bean)";
+        String read = f.getter != null ? target + "." + f.getter + "()" : target + "." + f.name;
+
+        String elementType = f.elementType != null ? f.elementType + ".class" : "null";
+        line("        fields.add(new MelchiorFieldContext(");
+        line("            " + type + ".class, " + elementType + ", " + literal(f.name) + ", " + literal(f.label) + ", null, null,");
+        line("            new FieldAccessor() {");
+        line("                @Override public Object get(Object bean) {");
+        line("                    return " + read + ";");
+        line("                }");
+        line("                @Override public void set(Object bean, Object value) {");
+        if (f.readonly) {
+            line("                    throw new com.github.noxchimaera.melchior.core.context.MelchiorAccessException(\"Field is read only\");");
+        } else {
+            line("                    " + write(target, f, "(" + boxed + ")value") + ";");
+        }
+        line("                }");
+        line("                @Override public boolean isWritable() {");
+        line("                    return " + !f.readonly + ";");
+        line("                }");
+        String specialized = specialized(f.type.getKind());
+        if (specialized != null) {
+            line("                @Override public " + type + " get" + specialized + "(Object bean) {");
+            line("                    return " + read + ";");
+            line("                }");
+            if (!f.readonly) {
+                line("                @Override public void set" + specialized + "(Object bean, " + type + " value) {");
+                line("                    " + write(target, f, "value") + ";");
+                line("                }");
+            }
+        }
+        line("            },");
+        line("            " + f.readonly + ", " + f.order + "));");
+    }
+
+    private static String write(String target, FieldModel f, String value) {
+        return f.setter != null
+            ? target + "." + f.setter + "(" + value + ")"
+            : target + "." + f.name + " = " + value;
+    }
+
+    /**
+     * Returns suffix of specialized {@code FieldAccessor} methods for primitive type.
+     */
+    private static String specialized(TypeKind kind) {
+        switch (kind) {
+            case INT: return "Int";
+            case LONG: return "Long";
+            case DOUBLE: return "Double";
+            case BOOLEAN: return "Boolean";
+            default: return null;
+        }
+    }
+
+    private static String boxed(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN: return "Boolean";
+            case BYTE: return "Byte";
+            case SHORT: return "Short";
+            case CHAR: return "Character";
+            case INT: return "Integer";
+            case LONG: return "Long";
+            case FLOAT: return "Float";
+            case DOUBLE: return "Double";
+            default: throw new IllegalArgumentException(kind.toString());
+        }
+    }
+
+    private static String literal(String s) {
+        StringBuilder b = new StringBuilder("\"");
+        for (char ch : s.toCharArray()) {
+            switch (ch) {
+                case '"': b.append("\\\""); break;
+                case '\\': b.append("\\\\"); break;
+                case '\n': b.append("\\n"); break;
+                case '\r': b.append("\\r"); break;
+                case '\t': b.append("\\t"); break;
+                default:
+                    if (ch < 0x20) {
+                        b.append(String.format("\\u%04x", (int)ch));
+                    } else {
+                        b.append(ch);
+                    }
+            }
+        }
+        return b.append('"').toString();
+    }
+
+    private void line(String s) throws IOException {
+        out.write(s);
+        out.write('\n');
+    }
+
+}
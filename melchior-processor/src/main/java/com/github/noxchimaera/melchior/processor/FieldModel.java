@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.processor;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Annotated field with resolved accessors.
+ *
+ * @author Max Balushkin
+ */
+class FieldModel {
+
+    final TypeMirror type;
+    final TypeMirror erasure;
+    /**
+     * Erasure of element type of array or collection field, {@code null} for other fields.
+     */
+    final TypeMirror elementType;
+    final String name;
+    final String label;
+    /**
+     * Getter name or {@code null} if field is read directly.
+     */
+    final String getter;
+    /**
+     * Setter name or {@code null} if field is read only or written directly.
+     */
+    final String setter;
+    final boolean readonly;
+    final int order;
+
+    FieldModel(TypeMirror type, TypeMirror erasure, TypeMirror elementType, String name, String label, String getter, String setter, boolean readonly, int order) {
+        this.type = type;
+        this.erasure = erasure;
+        this.elementType = elementType;
+        this.name = name;
+        this.label = label;
+        this.getter = getter;
+        this.setter = setter;
+        this.readonly = readonly;
+        this.order = order;
+    }
+
+}
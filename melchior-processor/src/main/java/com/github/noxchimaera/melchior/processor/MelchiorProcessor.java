@@ -0,0 +1,237 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.processor;
+
+import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+import com.github.noxchimaera.melchior.core.context.MelchiorContextProvider;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.noxchimaera.melchior.core.commons.StringUtils.*;
+
+/**
+ * Generates {@link com.github.noxchimaera.melchior.core.context.MelchiorContextProvider} for each class
+ * with {@link MelchiorField} annotated fields. <br>
+ * Generated providers build class context without reflection and access fields through direct calls.
+ * Missing getters and setters specified in annotation are reported as compilation errors. <br>
+ * If class can't be accessed from generated code (e.g. it is private, or it has private field without getter)
+ * no provider is generated and Melchior falls back to reflection at runtime.
+ *
+ * @author Max Balushkin
+ */
+@SupportedAnnotationTypes("com.github.noxchimaera.melchior.core.annotations.MelchiorField")
+public class MelchiorProcessor extends AbstractProcessor {
+
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+
+    @Override public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        messager = processingEnv.getMessager();
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> beans = new LinkedHashSet<>();
+        for (Element e : roundEnv.getElementsAnnotatedWith(MelchiorField.class)) {
+            if (e.getKind() == ElementKind.FIELD) {
+                beans.add((TypeElement)e.getEnclosingElement());
+            }
+        }
+        for (TypeElement bean : beans) {
+            BeanModel model = analyze(bean);
+            if (model != null) {
+                write(model);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves field accessors of class.
+     *
+     * @param bean class
+     *
+     * @return bean model or {@code null} if provider can't be generated
+     */
+    private BeanModel analyze(TypeElement bean) {
+        boolean generate = isAccessible(bean);
+        if (!generate) {
+            note(bean, "class is not accessible from its package, context will be created by reflection");
+        }
+
+        List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(bean));
+        List<FieldModel> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(bean.getEnclosedElements())) {
+            MelchiorField f = field.getAnnotation(MelchiorField.class);
+            if (f == null) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            boolean direct = !field.getModifiers().contains(Modifier.PRIVATE);
+
+            String getter = findMethod(methods, field, f.readMethod(), "get", "getter", false);
+            if (getter == null && !direct) {
+                generate = false;
+                note(field, "private field `" + name + "` has no getter, context will be created by reflection");
+            }
+
+            String setter = null;
+            if (!f.readOnly()) {
+                setter = findMethod(methods, field, f.writeMethod(), "set", "setter", true);
+                if (setter == null && field.getModifiers().contains(Modifier.FINAL)) {
+                    error(field, "final field `" + name + "` has no setter, mark it as read only");
+                    generate = false;
+                } else if (setter == null && !direct) {
+                    generate = false;
+                    note(field, "private field `" + name + "` has no setter, context will be created by reflection");
+                }
+            }
+
+            String label = f.label().trim().isEmpty() ? toReadable(name) : f.label();
+            fields.add(new FieldModel(field.asType(), types.erasure(field.asType()), elementType(field.asType()), name, label,
+                getter, setter, f.readOnly(), f.order()));
+        }
+        return generate ? new BeanModel(bean, fields) : null;
+    }
+
+    /**
+     * Finds public getter or setter of field.
+     *
+     * @return method name or {@code null} if method with conventional name does not exist
+     */
+    private String findMethod(List<ExecutableElement> methods, VariableElement field, String name, String prefix, String kind, boolean setter) {
+        boolean explicit = !name.trim().isEmpty();
+        String methodName = explicit ? name : prefix + capitalize(field.getSimpleName().toString());
+        TypeMirror fieldType = types.erasure(field.asType());
+        for (ExecutableElement m : methods) {
+            if (!m.getSimpleName().contentEquals(methodName)
+                || !m.getModifiers().contains(Modifier.PUBLIC)
+                || m.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (!setter && m.getParameters().isEmpty()) {
+                return methodName;
+            }
+            if (setter && m.getParameters().size() == 1
+                && types.isSameType(types.erasure(m.getParameters().get(0).asType()), fieldType)) {
+                return methodName;
+            }
+        }
+        if (explicit) {
+            error(field, String.format("can't find %s `%s` for `%s`", kind, methodName, field.getSimpleName()));
+        }
+        return null;
+    }
+
+    /**
+     * Resolves element type of array or collection the same way as {@code MelchiorFieldContext.elementTypeOf}.
+     *
+     * @return erasure of element type or {@code null} if type is neither array nor collection
+     */
+    private TypeMirror elementType(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return types.erasure(((ArrayType)type).getComponentType());
+        }
+        TypeMirror collection = types.erasure(elements.getTypeElement(Collection.class.getName()).asType());
+        if (type.getKind() != TypeKind.DECLARED || !types.isAssignable(types.erasure(type), collection)) {
+            return null;
+        }
+        List<? extends TypeMirror> args = ((DeclaredType)type).getTypeArguments();
+        if (args.size() != 1) {
+            return elements.getTypeElement(Object.class.getName()).asType();
+        }
+        TypeMirror arg = args.get(0);
+        if (arg.getKind() == TypeKind.WILDCARD) {
+            TypeMirror bound = ((WildcardType)arg).getExtendsBound();
+            arg = bound != null ? bound : elements.getTypeElement(Object.class.getName()).asType();
+        }
+        return types.erasure(arg);
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            TypeElement t = (TypeElement)e;
+            if (t.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (t.getNestingKind() == NestingKind.LOCAL || t.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            if (t.getNestingKind() == NestingKind.MEMBER && !t.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(BeanModel model) {
+        String pkg = elements.getPackageOf(model.bean).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(model.bean).toString();
+        String simpleName = (pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1))
+            + MelchiorContextProvider.SUFFIX;
+        String qualifiedName = pkg.isEmpty() ? simpleName : pkg + "." + simpleName;
+        try (Writer w = processingEnv.getFiler().createSourceFile(qualifiedName, model.bean).openWriter()) {
+            new ContextSourceWriter(w).write(pkg, simpleName, model);
+        } catch (IOException ex) {
+            error(model.bean, "can't generate " + qualifiedName + ": " + ex.getMessage());
+        }
+    }
+
+    private void note(Element e, String msg) {
+        messager.printMessage(Diagnostic.Kind.NOTE, "Melchior: " + msg, e);
+    }
+
+    private void error(Element e, String msg) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "Melchior: " + msg, e);
+    }
+
+}
@@ -16,28 +16,31 @@
 
 package com.github.noxchimaera.melchior.swing.builders;
 
-import com.github.noxchimaera.melchior.core.commons.StringUtils;
 import com.github.noxchimaera.melchior.core.commons.functional.Proc;
 import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
 import com.github.noxchimaera.melchior.core.components.WidgetFactory;
 import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
-import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
-import com.github.noxchimaera.melchior.swing.utils.GridConstraint;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.core.metrics.MelchiorMetrics;
+import com.github.noxchimaera.melchior.core.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import java.awt.*;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
-import static com.github.noxchimaera.melchior.swing.utils.GridConstraint.*;
-
 /**
  * @param <T> data type
  * @param <J> UI component type
@@ -51,70 +54,174 @@ public class BasicSwingBuilder<T, J extends JComponent> {
     private MelchiorClassContext context;
     private WidgetFactory<J> factory;
 
-    private Map<String, MelchiorWidget<J>> fieldMap;
+    private MelchiorFormPlan plan;
+    private FormRows<J> rows;
 
     private JPanel controlPanel;
     private JButton cancelButton;
     private JButton okButton;
 
     private T data;
+    private JFrame frame;
+    private JComponent content;
+    private LiveUpdates live;
+    private FormHistory history;
+    private FormValidator validator;
 
     public BasicSwingBuilder(MelchiorClassContext context, WidgetFactory<J> factory) {
         this.context = context;
         this.factory = factory;
-        fieldMap = new HashMap<>();
+        plan = context.getPlan();
     }
 
     public MelchiorWidget<J> getWidget(String field) {
-        return fieldMap.get(field);
+        int i = plan.indexOf(field);
+        return i < 0 || rows == null || rows.bindings[i] == null ? null : rows.bindings[i].widget();
     }
 
     public JFrame create(Consumer<T> onOk, Proc onCancel) throws ReflectiveOperationException {
-        JFrame f = init();
-        okButton.addActionListener(e -> { save(); onOk.accept(data); f.setVisible(false); });
+        return create((obj, changed) -> onOk.accept(obj), onCancel);
+    }
+
+    /**
+     * Creates form. <br>
+     * On Ok only fields modified by user are set, and names of these fields are passed to callback.
+     *
+     * @param onOk     the operation to perform on Ok, accepts object and names of changed fields
+     * @param onCancel the operation to perform on Cancel
+     *
+     * @return form frame
+     *
+     * @throws ReflectiveOperationException if object can't be created
+     */
+    public JFrame create(BiConsumer<T, Set<String>> onOk, Proc onCancel) throws ReflectiveOperationException {
+        return assemble(prepare(false), onOk, onCancel);
+    }
+
+    /**
+     * Creates form asynchronously using common fork-join pool, see {@link #createAsync(BiConsumer, Proc, Executor)}.
+     *
+     * @param onOk     the operation to perform on Ok, accepts object and names of changed fields
+     * @param onCancel the operation to perform on Cancel
+     *
+     * @return future form frame
+     */
+    public CompletableFuture<JFrame> createAsync(BiConsumer<T, Set<String>> onOk, Proc onCancel) {
+        return createAsync(onOk, onCancel, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates form asynchronously. <br>
+     * Object is created and its values are read by specified executor,
+     * then components are created on the Event Dispatch Thread. Returned future is completed on the EDT.
+     * Several builders may prepare their forms in parallel.
+     *
+     * @param onOk     the operation to perform on Ok, accepts object and names of changed fields
+     * @param onCancel the operation to perform on Cancel
+     * @param executor executor of preparation phase
+     *
+     * @return future form frame
+     */
+    public CompletableFuture<JFrame> createAsync(BiConsumer<T, Set<String>> onOk, Proc onCancel, Executor executor) {
+        return CompletableFuture
+            .supplyAsync(() -> {
+                try {
+                    return prepare(true);
+                } catch (ReflectiveOperationException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, executor)
+            .thenApplyAsync(prepared -> assemble(prepared, onOk, onCancel), SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Prepares form, may be called from any thread.
+     *
+     * @param readValues whether to read field values in advance
+     *
+     * @return form preparation
+     *
+     * @throws ReflectiveOperationException if object can't be created
+     */
+    private Preparation<T> prepare(boolean readValues) throws ReflectiveOperationException {
+        T obj = (T)context.getOfClass().newInstance();
+
+        Object[] values = null;
+        if (readValues) {
+            values = new Object[plan.size()];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = plan.getField(i).getAccessor().get(obj);
+            }
+        }
+        return new Preparation<>(obj, values);
+    }
+
+    /**
+     * Creates form content without frame, e.g. to embed it into another window. <br>
+     * Unlike {@link #create(BiConsumer, Proc)} does not require display, so it may be used in headless mode.
+     *
+     * @param onOk     the operation to perform on Ok, accepts object and names of changed fields
+     * @param onCancel the operation to perform on Cancel
+     *
+     * @return form content
+     *
+     * @throws ReflectiveOperationException if object can't be created
+     */
+    public JComponent createContent(BiConsumer<T, Set<String>> onOk, Proc onCancel) throws ReflectiveOperationException {
+        JComponent content = assembleContent(prepare(false));
+        okButton.addActionListener(e -> submit(() -> onOk.accept(data, save())));
+        cancelButton.addActionListener(e -> onCancel.exec());
+        return content;
+    }
+
+    /**
+     * Creates form frame, must be called on the Event Dispatch Thread.
+     *
+     * @param p        form preparation
+     * @param onOk     the operation to perform on Ok
+     * @param onCancel the operation to perform on Cancel
+     *
+     * @return form frame
+     */
+    private JFrame assemble(Preparation<T> p, BiConsumer<T, Set<String>> onOk, Proc onCancel) {
+        frame = new JFrame();
+        frame.setContentPane(assembleContent(p));
+        MelchiorMetrics.Span span = Metrics.begin(MelchiorMetrics.Phase.LAYOUT, context.getOfClass().getName());
+        frame.pack();
+        span.finish(plan.size());
+
+        JFrame f = frame;
+        okButton.addActionListener(e -> submit(() -> {
+            Set<String> changed = save();
+            onOk.accept(data, changed);
+            f.setVisible(false);
+        }));
         cancelButton.addActionListener(e -> { f.setVisible(false); onCancel.exec(); });
-        return f;
+        return frame;
     }
 
-    private JFrame init() throws ReflectiveOperationException {
-        data = (T)context.getOfClass().newInstance();
-        JFrame frame = new JFrame();
+    /**
+     * Creates form components, must be called on the Event Dispatch Thread.
+     *
+     * @param p form preparation
+     *
+     * @return form content
+     */
+    private JComponent assembleContent(Preparation<T> p) {
+        data = p.data;
 
         Box box = Box.createVerticalBox();
-        frame.setContentPane(box);
 
-        JLabel header = new JLabel(StringUtils.toReadable(context.getOfClass().getSimpleName()));
+        JLabel header = new JLabel(plan.getTitle());
         header.setAlignmentX(JComponent.CENTER_ALIGNMENT);
         box.add(header);
 
         Container root = new JPanel(new GridBagLayout());
         box.add(root);
 
-        int i = 0;
-        List<MelchiorFieldContext> fs = context.getFields();
-        fs.sort(Comparator.comparingInt(MelchiorFieldContext::getOrder));
-        for (MelchiorFieldContext f : fs) {
-            String label = f.getLabel().isEmpty()
-                ? StringUtils.toReadable(f.getName())
-                : f.getLabel();
-            root.add(new JLabel(label), at(0, i)
-                .anchor(AnchorAbsolute.WEST).insets(5, 5, 5, 5).build());
-
-            MelchiorWidget<J> widget = factory.get(f.getFieldType());
-            JComponent cmpt = widget.javaComponent();
-
-            widget.set(f.getGetter().invoke(data));
-
-            root.add(cmpt, GridConstraint
-                .at(1, i).insets(5, 5, 5, 5).weight(1, 0)
-                .fill(Fill.HORIZONTAL).width(GridBagConstraints.REMAINDER).build());
-            if (f.isReadonly()) {
-                cmpt.setEnabled(false);
-            }
-            fieldMap.put(f.getName(), widget);
-
-            ++i;
-        }
+        MelchiorMetrics.Span span = Metrics.begin(MelchiorMetrics.Phase.POPULATION, context.getOfClass().getName());
+        rows = new FormRows<>(root, plan, factory, data, p.values, Collections.singletonList(data));
+        span.finish(plan.size());
 
         box.add(Box.createVerticalStrut(8));
 
@@ -127,33 +234,201 @@ public class BasicSwingBuilder<T, J extends JComponent> {
 
         controlPanel.setAlignmentX(JComponent.LEFT_ALIGNMENT);
         box.add(controlPanel);
+        content = box;
+        return box;
+    }
 
-        frame.pack();
-        return frame;
+    /**
+     * Performs Ok action if form is valid. If expensive validators are still running,
+     * action waits for them, see {@link FormValidator#submit(Runnable)}.
+     */
+    private void submit(Runnable action) {
+        if (validator == null) {
+            action.run();
+        } else {
+            validator.submit(action);
+        }
     }
 
-    private void save() {
-        try {
-            Object obj = context.getOfClass().newInstance();
+    /**
+     * Sets modified fields of object. Called when user presses Ok.
+     *
+     * @return names of changed fields, fields of nested objects are prefixed with name of nested object
+     * (e.g. {@code address.city})
+     */
+    public Set<String> save() {
+        MelchiorMetrics.Span span = Metrics.begin(MelchiorMetrics.Phase.SAVE, context.getOfClass().getName());
+        Set<String> changed = new LinkedHashSet<>();
+        rows.save(data, "", changed);
+        span.finish(changed.size());
+        LOGGER.debug("Changed fields of `{}`: {}", context.getOfClass().getName(), changed);
+        return changed;
+    }
 
-            for (MelchiorFieldContext fieldContext : context.getFields()) {
-                if (fieldContext.isReadonly()) {
-                    continue;
-                }
-                Method setter = fieldContext.getSetter();
-                MelchiorWidget<J> cmpt = fieldMap.get(fieldContext.getName());
-                Object value =  cmpt.get();
-                setter.invoke(data, value);
+    /**
+     * Returns live updates of created form with default refresh interval,
+     * see {@link #live(int)}.
+     *
+     * @return live updates
+     */
+    public LiveUpdates live() {
+        return live(LiveUpdates.DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Returns live updates of created form, so changes of object made by other threads are shown in form. <br>
+     * Live updates are created on first call, subsequent calls return the same instance. Must be called on
+     * the Event Dispatch Thread after form is created.
+     *
+     * @param interval minimal interval between refreshes in milliseconds
+     *
+     * @return live updates
+     */
+    public LiveUpdates live(int interval) {
+        if (rows == null) {
+            throw new IllegalStateException("Form is not created");
+        }
+        if (live == null) {
+            live = new LiveUpdates(rows, data, interval);
+            live.setHistory(history);
+        }
+        return live;
+    }
+
+    /**
+     * Returns undo/redo history of created form with default memory budget, see {@link #history(long)}.
+     *
+     * @return form history
+     */
+    public FormHistory history() {
+        return history(FormHistory.DEFAULT_BUDGET);
+    }
+
+    /**
+     * Returns undo/redo history of created form. Edits are recorded since first call,
+     * subsequent calls return the same instance. <br>
+     * Ctrl+Z and Ctrl+Y (Ctrl+Shift+Z) are bound to undo and redo within form.
+     * Must be called on the Event Dispatch Thread after form is created.
+     *
+     * @param budget memory budget in bytes
+     *
+     * @return form history
+     */
+    public FormHistory history(long budget) {
+        if (rows == null) {
+            throw new IllegalStateException("Form is not created");
+        }
+        if (history == null) {
+            history = new FormHistory(rows, budget);
+            if (live != null) {
+                live.setHistory(history);
             }
 
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            LOGGER.error("Can't create object", e);
+            InputMap keys = content.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
+            int mask = InputEvent.CTRL_MASK;
+            keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, mask), "melchior.undo");
+            keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, mask), "melchior.redo");
+            keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, mask | InputEvent.SHIFT_MASK), "melchior.redo");
+            FormHistory h = history;
+            content.getActionMap().put("melchior.undo", new AbstractAction() {
+                @Override public void actionPerformed(ActionEvent e) {
+                    h.undo();
+                }
+            });
+            content.getActionMap().put("melchior.redo", new AbstractAction() {
+                @Override public void actionPerformed(ActionEvent e) {
+                    h.redo();
+                }
+            });
         }
+        return history;
+    }
 
+    /**
+     * Returns validator of created form, expensive validators run in common fork-join pool,
+     * see {@link #validation(Executor)}.
+     *
+     * @return form validator
+     */
+    public FormValidator validation() {
+        return validation(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns validator of created form, so fields are validated while user edits them.
+     * Validator is created on first call, subsequent calls return the same instance. <br>
+     * While form has invalid fields, Ok does nothing. Must be called on the Event Dispatch Thread after form is created.
+     *
+     * @param executor executor of expensive validators
+     *
+     * @return form validator
+     */
+    public FormValidator validation(Executor executor) {
+        if (rows == null) {
+            throw new IllegalStateException("Form is not created");
+        }
+        if (validator == null) {
+            validator = new FormValidator(rows, context.getValidation(), executor, FormValidator.DEFAULT_DELAY);
+        }
+        return validator;
+    }
+
+    /**
+     * Whether any field is modified by user since form was created or saved.
+     *
+     * @return {@code true} if form has unsaved changes
+     */
+    public boolean isModified() {
+        return rows != null && rows.isModified();
     }
 
     public T getData() {
         return data;
     }
 
+    /**
+     * Disposes created frame and returns its widgets to factory pool (see {@link WidgetFactory#setPoolSize(int)}). <br>
+     * Widgets must not be used after this call.
+     */
+    public void dispose() {
+        if (live != null) {
+            live.close();
+            live = null;
+        }
+        if (history != null) {
+            history.close();
+            history = null;
+        }
+        if (validator != null) {
+            validator.close();
+            validator = null;
+        }
+        if (frame != null) {
+            frame.dispose();
+            frame = null;
+        }
+        if (rows != null) {
+            rows.release(factory);
+            rows = null;
+        }
+    }
+
+    /**
+     * Result of form preparation phase.
+     */
+    private static final class Preparation<T> {
+
+        final T data;
+        /**
+         * Field values read in advance (indexed as fields of plan), {@code null} if values are read during assembly.
+         */
+        final Object[] values;
+
+        Preparation(T data, Object[] values) {
+            this.data = data;
+            this.values = values;
+        }
+
+    }
+
 }
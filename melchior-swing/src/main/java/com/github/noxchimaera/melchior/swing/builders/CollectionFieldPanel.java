@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.convert.ValueConversion;
+import com.github.noxchimaera.melchior.swing.table.BeanTableModel;
+import com.github.noxchimaera.melchior.swing.table.CollectionListModel;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Editor of array or collection field. <br>
+ * Lists of annotated objects are shown as table, other collections as list with editor of selected element.
+ * Views adapt the collection itself without copying it, and only visible elements are rendered.
+ * Changes are applied to the collection immediately.
+ *
+ * @param <J> UI component type
+ *
+ * @author Max Balushkin
+ */
+final class CollectionFieldPanel<J extends JComponent> extends JPanel implements FieldEditor {
+
+    private static final int VISIBLE_ROWS = 6;
+
+    private final MelchiorFieldContext field;
+    private final WidgetFactory<J> factory;
+
+    /**
+     * Edited collection or array, {@code null} if field is empty array.
+     */
+    private Object source;
+    /**
+     * Whether collection was created by editor, so it must be set to owner on save.
+     */
+    private boolean created;
+    private boolean modified;
+
+    private MelchiorWidget<J> elementWidget;
+    /**
+     * Conversion between value of element widget and element type, the widget may be resolved for supertype.
+     */
+    private ValueConversion elementConversion;
+
+    /**
+     * Creates editor.
+     *
+     * @param field   collection field
+     * @param factory widget factory
+     * @param owner   object which contains collection
+     */
+    CollectionFieldPanel(MelchiorFieldContext field, WidgetFactory<J> factory, Object owner) {
+        super(new BorderLayout());
+        this.field = field;
+        this.factory = factory;
+
+        source = field.getAccessor().get(owner);
+        if (source == null && !field.getFieldType().isArray() && !field.isReadonly()) {
+            source = newCollection(field.getFieldType());
+            created = source != null;
+        }
+        if (source == null) {
+            add(new JLabel("Empty"), BorderLayout.CENTER);
+            return;
+        }
+
+        if (source instanceof List && MelchiorClassContext.isAnnotated(field.getElementType())) {
+            buildTable((List)source);
+        } else {
+            buildList(new CollectionListModel(source));
+        }
+    }
+
+    private void buildTable(List<Object> list) {
+        SwingTableBuilder<Object, J> builder = new SwingTableBuilder<>(MelchiorClassContext.of(field.getElementType()), factory);
+        JTable table = builder.create(list);
+        BeanTableModel<Object> model = builder.getModel();
+        model.addTableModelListener(e -> modified = true);
+        table.setPreferredScrollableViewportSize(new Dimension(
+            table.getPreferredScrollableViewportSize().width, VISIBLE_ROWS * table.getRowHeight()));
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton addButton = new JButton("Add");
+        addButton.addActionListener(e -> {
+            try {
+                model.addRows(Collections.singletonList(field.getElementType().newInstance()));
+            } catch (ReflectiveOperationException ex) {
+                JOptionPane.showMessageDialog(this, "Can't create " + field.getElementType().getSimpleName());
+            }
+        });
+        JButton removeButton = new JButton("Remove");
+        removeButton.addActionListener(e -> {
+            int row = table.getSelectedRow();
+            if (row >= 0) {
+                if (table.isEditing()) {
+                    table.getCellEditor().cancelCellEditing();
+                }
+                model.removeRow(row);
+            }
+        });
+        buttons.add(addButton);
+        buttons.add(removeButton);
+        add(buttons, BorderLayout.SOUTH);
+
+        if (field.isReadonly()) {
+            table.setEnabled(false);
+            addButton.setEnabled(false);
+            removeButton.setEnabled(false);
+        }
+    }
+
+    private void buildList(CollectionListModel model) {
+        JList<Object> list = new JList<>(model);
+        list.setFixedCellHeight(new JLabel("X").getPreferredSize().height + 2);
+        list.setVisibleRowCount(VISIBLE_ROWS);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        model.addListDataListener(new ListDataListener() {
+            @Override public void intervalAdded(ListDataEvent e) { modified = true; }
+            @Override public void intervalRemoved(ListDataEvent e) { modified = true; }
+            @Override public void contentsChanged(ListDataEvent e) { modified = true; }
+        });
+        add(new JScrollPane(list), BorderLayout.CENTER);
+
+        if (field.isReadonly()) {
+            return;
+        }
+        elementWidget = factory.find(field.getElementType()).orElse(null);
+        if (elementWidget != null) {
+            try {
+                elementConversion = ValueConversion.resolve(elementWidget.getValueType(), field.getElementType());
+            } catch (IllegalArgumentException ex) {
+                factory.release(elementWidget);
+                elementWidget = null;
+            }
+        }
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton addButton = new JButton("Add");
+        JButton setButton = new JButton("Set");
+        JButton removeButton = new JButton("Remove");
+        if (elementWidget != null) {
+            list.addListSelectionListener(e -> {
+                if (!e.getValueIsAdjusting() && list.getSelectedIndex() >= 0) {
+                    elementWidget.set(elementConversion.toWidget(model.getElementAt(list.getSelectedIndex())));
+                }
+            });
+            addButton.addActionListener(e -> withElement(model::add));
+            setButton.addActionListener(e -> {
+                int i = list.getSelectedIndex();
+                if (i >= 0) {
+                    withElement(value -> model.set(i, value));
+                }
+            });
+            buttons.add(elementWidget.javaComponent());
+            buttons.add(setButton);
+            if (model.isResizable()) {
+                buttons.add(addButton);
+            }
+        }
+        if (model.isResizable()) {
+            removeButton.addActionListener(e -> {
+                int i = list.getSelectedIndex();
+                if (i >= 0) {
+                    model.remove(i);
+                }
+            });
+            buttons.add(removeButton);
+        }
+        add(buttons, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Passes value of element widget converted to element type to action,
+     * or tells user that value is not valid element.
+     */
+    private void withElement(Consumer<Object> action) {
+        Object value;
+        try {
+            value = elementConversion.toField(elementWidget.get());
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid value");
+            return;
+        }
+        // arrays of primitives can't hold null
+        if (value == null && field.getElementType().isPrimitive()) {
+            JOptionPane.showMessageDialog(this, "Invalid value");
+            return;
+        }
+        action.accept(value);
+    }
+
+    /**
+     * Creates empty collection of specified type.
+     *
+     * @param type collection type
+     *
+     * @return collection or {@code null} if type can't be instantiated
+     */
+    private static Collection newCollection(Class type) {
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList();
+        }
+        if (type.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet();
+        }
+        if (type.isAssignableFrom(TreeSet.class) && SortedSet.class.isAssignableFrom(type)) {
+            return new TreeSet();
+        }
+        if (type.isAssignableFrom(ArrayDeque.class) && Queue.class.isAssignableFrom(type)) {
+            return new ArrayDeque();
+        }
+        try {
+            return (Collection)type.newInstance();
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    @Override public void save(Object owner, String prefix, Set<String> changed) {
+        if (!modified) {
+            return;
+        }
+        if (created) {
+            field.getAccessor().set(owner, source);
+            created = false;
+        }
+        modified = false;
+        changed.add(prefix + field.getName());
+    }
+
+    @Override public boolean isModified() {
+        return modified;
+    }
+
+    @Override public void release() {
+        if (elementWidget != null) {
+            JComponent cmpt = elementWidget.javaComponent();
+            if (cmpt.getParent() != null) {
+                cmpt.getParent().remove(cmpt);
+            }
+            factory.release(elementWidget);
+            elementWidget = null;
+        }
+    }
+
+}
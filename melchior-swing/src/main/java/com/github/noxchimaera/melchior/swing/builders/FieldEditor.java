@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import java.util.Set;
+
+/**
+ * Editor of field which is not bound to single widget (e.g. nested object or collection).
+ *
+ * @author Max Balushkin
+ */
+interface FieldEditor {
+
+    /**
+     * Applies changes to object.
+     *
+     * @param owner   object which contains field
+     * @param prefix  prefix of changed field names
+     * @param changed names of changed fields
+     */
+    void save(Object owner, String prefix, Set<String> changed);
+
+    /**
+     * Whether field is modified by user since editor was created or saved.
+     *
+     * @return {@code true} if there are unsaved changes
+     */
+    boolean isModified();
+
+    /**
+     * Returns widgets of editor to factory.
+     */
+    void release();
+
+}
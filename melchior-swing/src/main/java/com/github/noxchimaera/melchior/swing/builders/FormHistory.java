@@ -0,0 +1,535 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetBinding;
+import com.github.noxchimaera.melchior.swing.utils.ComponentChanges;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Undo/redo history of form. <br>
+ * Each edit is recorded as delta of single field, so history does not depend on size of edited object
+ * and undo sets only widget of affected field. Of text, list and set values only the changed part is stored
+ * (e.g. typed characters, not the whole text), other values are stored as old and new value.
+ * Consecutive edits of the same field within {@link #setMergeWindow(long) merge window} (e.g. keystrokes)
+ * are merged into one. <br>
+ * Memory used by history is estimated, when it exceeds budget the oldest edits are dropped, even the last
+ * one if it alone exceeds budget. When widget is changed without recording, edits of its field are dropped,
+ * since their deltas do not apply to the new value. <br>
+ * Only fields bound to widgets are recorded, nested and collection editors are not. Must be used
+ * on the Event Dispatch Thread.
+ *
+ * @author Max Balushkin
+ */
+public final class FormHistory {
+
+    /**
+     * Default memory budget in bytes.
+     */
+    public static final long DEFAULT_BUDGET = 256 * 1024;
+
+    /**
+     * Estimated size of edit without values.
+     */
+    private static final long EDIT_SIZE = 48;
+
+    private final FormRows<?> rows;
+    private final long budget;
+
+    /**
+     * Last known widget values indexed as fields of plan.
+     */
+    private final Object[] current;
+    private final List<Runnable> detach = new ArrayList<>();
+
+    private final ArrayDeque<Edit> undo = new ArrayDeque<>();
+    private final ArrayDeque<Edit> redo = new ArrayDeque<>();
+    private long used;
+
+    private long mergeWindow = 1000;
+    /**
+     * Whether next edit may be merged with the last one, reset by undo and redo.
+     */
+    private boolean mergeable;
+    /**
+     * Set while widgets are changed by history itself or by model, such changes are not recorded.
+     */
+    private boolean applying;
+
+    /**
+     * Creates history of form rows and starts recording.
+     *
+     * @param rows   form rows
+     * @param budget memory budget in bytes
+     */
+    FormHistory(FormRows<?> rows, long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + budget);
+        }
+        this.rows = rows;
+        this.budget = budget;
+
+        current = new Object[rows.bindings.length];
+        for (int i = 0; i < current.length; ++i) {
+            WidgetBinding<?> binding = rows.bindings[i];
+            if (binding == null || binding.field().isReadonly()) {
+                continue;
+            }
+            current[i] = binding.widget().get();
+            final int field = i;
+            detach.add(ComponentChanges.listen(rows.bindings[i].widget().javaComponent(), () -> changed(field)));
+        }
+    }
+
+    /**
+     * Sets maximal interval between edits of the same field which are merged into one.
+     *
+     * @param millis interval in milliseconds, 0 disables merging
+     */
+    public void setMergeWindow(long millis) {
+        mergeWindow = millis;
+    }
+
+    /**
+     * Undoes last edit.
+     *
+     * @return {@code false} if there is nothing to undo
+     */
+    public boolean undo() {
+        Edit edit = undo.pollLast();
+        if (edit == null) {
+            return false;
+        }
+        apply(edit.field, edit.delta.undo(current[edit.field]));
+        redo.addLast(edit);
+        mergeable = false;
+        return true;
+    }
+
+    /**
+     * Redoes last undone edit.
+     *
+     * @return {@code false} if there is nothing to redo
+     */
+    public boolean redo() {
+        Edit edit = redo.pollLast();
+        if (edit == null) {
+            return false;
+        }
+        apply(edit.field, edit.delta.redo(current[edit.field]));
+        undo.addLast(edit);
+        mergeable = false;
+        return true;
+    }
+
+    public boolean canUndo() {
+        return !undo.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redo.isEmpty();
+    }
+
+    /**
+     * Forgets all edits.
+     */
+    public void clear() {
+        undo.clear();
+        redo.clear();
+        used = 0;
+        mergeable = false;
+    }
+
+    /**
+     * Returns estimated memory used by recorded edits.
+     *
+     * @return size in bytes
+     */
+    public long getMemoryUsage() {
+        return used;
+    }
+
+    /**
+     * Stops recording and forgets all edits.
+     */
+    public void close() {
+        for (Runnable r : detach) {
+            r.run();
+        }
+        detach.clear();
+        clear();
+    }
+
+    /**
+     * Changes widget of field without recording, e.g. when it is refreshed from model.
+     * If value of widget is changed, edits of the field are dropped.
+     *
+     * @param field  field index
+     * @param change the operation which changes widget
+     */
+    void external(int field, Runnable change) {
+        applying = true;
+        try {
+            change.run();
+        } finally {
+            applying = false;
+        }
+        Object value = rows.bindings[field].widget().get();
+        if (!Objects.equals(current[field], value)) {
+            current[field] = value;
+            drop(undo, field);
+            drop(redo, field);
+            mergeable = false;
+        }
+    }
+
+    private void drop(ArrayDeque<Edit> edits, int field) {
+        for (Iterator<Edit> it = edits.iterator(); it.hasNext(); ) {
+            Edit edit = it.next();
+            if (edit.field == field) {
+                used -= edit.size();
+                it.remove();
+            }
+        }
+    }
+
+    private void apply(int field, Object value) {
+        MelchiorWidget<?> widget = rows.bindings[field].widget();
+        applying = true;
+        try {
+            widget.set(value);
+        } finally {
+            applying = false;
+        }
+        current[field] = widget.get();
+    }
+
+    private void changed(int field) {
+        if (applying) {
+            return;
+        }
+        Object value = rows.bindings[field].widget().get();
+        Object before = current[field];
+        if (Objects.equals(before, value)) {
+            return;
+        }
+        current[field] = value;
+        redoCleared();
+
+        long now = System.currentTimeMillis();
+        Edit last = undo.peekLast();
+        boolean merge = mergeable && last != null && last.field == field && now - last.time <= mergeWindow;
+        mergeable = true;
+        if (merge) {
+            undo.pollLast();
+            used -= last.size();
+            before = last.delta.undo(before);
+            if (Objects.equals(before, value)) {
+                return;
+            }
+        }
+        Edit edit = new Edit(field, delta(before, value), now);
+        undo.addLast(edit);
+        used += edit.size();
+        trim();
+    }
+
+    private void redoCleared() {
+        for (Edit edit : redo) {
+            used -= edit.size();
+        }
+        redo.clear();
+    }
+
+    private void trim() {
+        while (used > budget && !undo.isEmpty()) {
+            used -= undo.pollFirst().size();
+        }
+        if (undo.isEmpty()) {
+            mergeable = false;
+        }
+    }
+
+    /**
+     * Returns delta which changes old value to new one.
+     */
+    private static Delta delta(Object before, Object after) {
+        if (before instanceof String && after instanceof String) {
+            return TextDelta.of((String)before, (String)after);
+        }
+        if (before instanceof List && after instanceof List) {
+            return ListDelta.of((List<?>)before, (List<?>)after);
+        }
+        if (before instanceof Set && after instanceof Set) {
+            return SetDelta.of((Set<?>)before, (Set<?>)after);
+        }
+        return new Replace(before, after);
+    }
+
+    /**
+     * Roughly estimates memory retained by value.
+     */
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence)value).length();
+        }
+        if (value instanceof Collection) {
+            return sizeOf((Collection<?>)value);
+        }
+        return 16;
+    }
+
+    private static long sizeOf(Collection<?> values) {
+        long size = 24;
+        for (Object value : values) {
+            size += 8 + sizeOf(value);
+        }
+        return size;
+    }
+
+    /**
+     * Change of single field.
+     */
+    private static final class Edit {
+
+        final int field;
+        final Delta delta;
+        final long time;
+
+        Edit(int field, Delta delta, long time) {
+            this.field = field;
+            this.delta = delta;
+            this.time = time;
+        }
+
+        long size() {
+            return EDIT_SIZE + delta.size();
+        }
+
+    }
+
+    /**
+     * Reversible change of value.
+     */
+    private interface Delta {
+
+        /**
+         * Returns old value from new one.
+         */
+        Object undo(Object after);
+
+        /**
+         * Returns new value from old one.
+         */
+        Object redo(Object before);
+
+        /**
+         * Roughly estimates memory retained by delta.
+         */
+        long size();
+
+    }
+
+    /**
+     * Old and new value.
+     */
+    private static final class Replace implements Delta {
+
+        private final Object before;
+        private final Object after;
+
+        Replace(Object before, Object after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override public Object undo(Object after) {
+            return before;
+        }
+
+        @Override public Object redo(Object before) {
+            return after;
+        }
+
+        @Override public long size() {
+            return sizeOf(before) + sizeOf(after);
+        }
+
+    }
+
+    /**
+     * Replacement of text range: chars removed from and inserted at offset.
+     */
+    private static final class TextDelta implements Delta {
+
+        private final int offset;
+        private final String removed;
+        private final String inserted;
+
+        private TextDelta(int offset, String removed, String inserted) {
+            this.offset = offset;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+
+        static TextDelta of(String before, String after) {
+            int prefix = 0;
+            int max = Math.min(before.length(), after.length());
+            while (prefix < max && before.charAt(prefix) == after.charAt(prefix)) {
+                ++prefix;
+            }
+            int suffix = 0;
+            max -= prefix;
+            while (suffix < max
+                && before.charAt(before.length() - 1 - suffix) == after.charAt(after.length() - 1 - suffix)) {
+                ++suffix;
+            }
+            return new TextDelta(prefix,
+                before.substring(prefix, before.length() - suffix), after.substring(prefix, after.length() - suffix));
+        }
+
+        @Override public Object undo(Object after) {
+            return splice((String)after, inserted.length(), removed);
+        }
+
+        @Override public Object redo(Object before) {
+            return splice((String)before, removed.length(), inserted);
+        }
+
+        private String splice(String text, int length, String replacement) {
+            return new StringBuilder(text.length() - length + replacement.length())
+                .append(text, 0, offset)
+                .append(replacement)
+                .append(text, offset + length, text.length())
+                .toString();
+        }
+
+        @Override public long size() {
+            return 24 + sizeOf(removed) + sizeOf(inserted);
+        }
+
+    }
+
+    /**
+     * Replacement of list range: elements removed from and inserted at index.
+     */
+    private static final class ListDelta implements Delta {
+
+        private final int index;
+        private final List<?> removed;
+        private final List<?> inserted;
+
+        private ListDelta(int index, List<?> removed, List<?> inserted) {
+            this.index = index;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+
+        static ListDelta of(List<?> before, List<?> after) {
+            int prefix = 0;
+            int max = Math.min(before.size(), after.size());
+            while (prefix < max && Objects.equals(before.get(prefix), after.get(prefix))) {
+                ++prefix;
+            }
+            int suffix = 0;
+            max -= prefix;
+            while (suffix < max
+                && Objects.equals(before.get(before.size() - 1 - suffix), after.get(after.size() - 1 - suffix))) {
+                ++suffix;
+            }
+            return new ListDelta(prefix,
+                new ArrayList<>(before.subList(prefix, before.size() - suffix)),
+                new ArrayList<>(after.subList(prefix, after.size() - suffix)));
+        }
+
+        @Override public Object undo(Object after) {
+            return splice((List<?>)after, inserted.size(), removed);
+        }
+
+        @Override public Object redo(Object before) {
+            return splice((List<?>)before, removed.size(), inserted);
+        }
+
+        private List<Object> splice(List<?> list, int length, List<?> replacement) {
+            List<Object> result = new ArrayList<>(list.size() - length + replacement.size());
+            result.addAll(list.subList(0, index));
+            result.addAll(replacement);
+            result.addAll(list.subList(index + length, list.size()));
+            return result;
+        }
+
+        @Override public long size() {
+            return 24 + sizeOf(removed) + sizeOf(inserted);
+        }
+
+    }
+
+    /**
+     * Elements removed from and added to set.
+     */
+    private static final class SetDelta implements Delta {
+
+        private final Set<Object> removed;
+        private final Set<Object> added;
+
+        private SetDelta(Set<Object> removed, Set<Object> added) {
+            this.removed = removed;
+            this.added = added;
+        }
+
+        static SetDelta of(Set<?> before, Set<?> after) {
+            Set<Object> removed = new LinkedHashSet<>(before);
+            removed.removeAll(after);
+            Set<Object> added = new LinkedHashSet<>(after);
+            added.removeAll(before);
+            return new SetDelta(removed, added);
+        }
+
+        @Override public Object undo(Object after) {
+            return apply((Set<?>)after, added, removed);
+        }
+
+        @Override public Object redo(Object before) {
+            return apply((Set<?>)before, removed, added);
+        }
+
+        private static Set<Object> apply(Set<?> set, Set<Object> remove, Set<Object> add) {
+            Set<Object> result = new LinkedHashSet<>(set);
+            result.removeAll(remove);
+            result.addAll(add);
+            return result;
+        }
+
+        @Override public long size() {
+            return 16 + sizeOf(removed) + sizeOf(added);
+        }
+
+    }
+
+}
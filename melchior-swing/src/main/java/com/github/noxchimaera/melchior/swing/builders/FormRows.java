@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetBinding;
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.swing.utils.FormRowConstraints;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows of form (label and widget per field) laid out in GridBagLayout container. <br>
+ * Fields of annotated types without registered widget are shown as {@link NestedFormPanel},
+ * arrays and collections without registered widget are shown as {@link CollectionFieldPanel},
+ * large text fields are shown as {@link LargeTextPanel}.
+ *
+ * @param <J> UI component type
+ *
+ * @author Max Balushkin
+ */
+final class FormRows<J extends JComponent> {
+
+    final MelchiorFormPlan plan;
+    /**
+     * Widget bindings indexed as fields of plan, {@code null} for fields with editors.
+     */
+    final WidgetBinding<J>[] bindings;
+    /**
+     * Field editors indexed as fields of plan, {@code null} for fields with widgets.
+     */
+    final FieldEditor[] editors;
+
+    /**
+     * Creates rows for all fields of plan and adds them to container.
+     *
+     * @param root    container with GridBagLayout
+     * @param plan    form plan
+     * @param factory widget factory
+     * @param bean    edited object
+     * @param values  field values read in advance or {@code null} to read them from object
+     * @param path    objects enclosing edited one (including itself), used to detect cycles
+     */
+    FormRows(Container root, MelchiorFormPlan plan, WidgetFactory<J> factory, Object bean, Object[] values, List<Object> path) {
+        this.plan = plan;
+        final int n = plan.size();
+        bindings = new WidgetBinding[n];
+        editors = new FieldEditor[n];
+        for (int i = 0; i < n; ++i) {
+            MelchiorFieldContext f = plan.getField(i);
+            root.add(new JLabel(plan.getLabel(i)), FormRowConstraints.label(i));
+
+            if (plan.isLargeText(i)) {
+                LargeTextPanel editor = new LargeTextPanel(f, bean);
+                root.add(editor, FormRowConstraints.widget(i));
+                editors[i] = editor;
+                continue;
+            }
+
+            Class type = plan.getWidgetType(i);
+            if (!factory.supports(type)) {
+                JComponent editor = null;
+                if (plan.isNested(i)) {
+                    editor = new NestedFormPanel<>(f, factory, bean, path);
+                } else if (f.isCollection()) {
+                    editor = new CollectionFieldPanel<>(f, factory, bean);
+                }
+                if (editor != null) {
+                    root.add(editor, FormRowConstraints.widget(i));
+                    editors[i] = (FieldEditor)editor;
+                    continue;
+                }
+            }
+
+            MelchiorWidget<J> widget = factory.get(type);
+            if (widget == null) {
+                throw new IllegalStateException(String.format(
+                    "No widget for `%s` of type `%s`", f.getName(), type.getName()));
+            }
+            JComponent cmpt = widget.javaComponent();
+
+            WidgetBinding<J> binding = WidgetBinding.of(f, widget);
+            if (values != null) {
+                binding.loadValue(values[i]);
+            } else {
+                binding.load(bean);
+            }
+
+            root.add(cmpt, FormRowConstraints.widget(i));
+            cmpt.setEnabled(!f.isReadonly());
+            bindings[i] = binding;
+        }
+    }
+
+    /**
+     * Sets modified fields of object.
+     *
+     * @param bean    edited object
+     * @param prefix  prefix of changed field names (e.g. {@code "address."} for nested form)
+     * @param changed names of changed fields
+     */
+    void save(Object bean, String prefix, Set<String> changed) {
+        for (int i = 0; i < bindings.length; ++i) {
+            WidgetBinding<J> binding = bindings[i];
+            if (binding != null) {
+                if (!binding.field().isReadonly() && binding.storeIfModified(bean)) {
+                    changed.add(prefix + binding.field().getName());
+                }
+            } else {
+                editors[i].save(bean, prefix, changed);
+            }
+        }
+    }
+
+    /**
+     * Whether any field is modified by user since rows were created or saved.
+     *
+     * @return {@code true} if there are unsaved changes
+     */
+    boolean isModified() {
+        for (int i = 0; i < bindings.length; ++i) {
+            WidgetBinding<J> binding = bindings[i];
+            if (binding != null ? !binding.field().isReadonly() && binding.isModified() : editors[i].isModified()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns widgets of rows (and of expanded nested forms) to factory.
+     *
+     * @param factory widget factory
+     */
+    void release(WidgetFactory<J> factory) {
+        for (int i = 0; i < bindings.length; ++i) {
+            if (bindings[i] != null) {
+                MelchiorWidget<J> widget = bindings[i].widget();
+                JComponent cmpt = widget.javaComponent();
+                if (cmpt.getParent() != null) {
+                    cmpt.getParent().remove(cmpt);
+                }
+                factory.release(widget);
+            } else {
+                editors[i].release();
+            }
+        }
+    }
+
+}
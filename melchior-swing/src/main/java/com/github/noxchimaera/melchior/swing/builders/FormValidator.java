@@ -0,0 +1,441 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.components.WidgetBinding;
+import com.github.noxchimaera.melchior.core.context.MelchiorAccessException;
+import com.github.noxchimaera.melchior.core.validation.FieldValidation;
+import com.github.noxchimaera.melchior.core.validation.MelchiorValidation;
+import com.github.noxchimaera.melchior.swing.utils.ComponentChanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Validates form while user edits it, using validation compiled for class context. <br>
+ * Changes are debounced: field is validated when user stops editing it for a while. Only the edited field
+ * and fields which depend on it are validated. Cheap validators run on the Event Dispatch Thread,
+ * expensive ones run on executor; when field changes again, its running validation is cancelled
+ * and its stale result is discarded. Validators get widget values converted to field types,
+ * the same values {@link MelchiorValidation#validate(Object)} gets from object. <br>
+ * Invalid widgets get red border and tooltip with error message. Must be used on the Event Dispatch Thread.
+ *
+ * @author Max Balushkin
+ */
+public final class FormValidator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FormValidator.class);
+
+    /**
+     * Default debounce delay in milliseconds.
+     */
+    public static final int DEFAULT_DELAY = 300;
+
+    private static final Border INVALID_BORDER = BorderFactory.createLineBorder(Color.RED);
+    private static final Function<String, Object> NO_VALUES = name -> null;
+
+    private final FormRows<?> rows;
+    private final MelchiorValidation validation;
+    private final Executor executor;
+
+    /**
+     * Error messages indexed as fields of plan, {@code null} for valid fields.
+     */
+    private final String[] errors;
+    /**
+     * Validation generation of each field, incremented whenever field is revalidated.
+     */
+    private final int[] generations;
+    private final AsyncCheck[] running;
+    private final Border[] borders;
+    private final String[] tooltips;
+
+    private final BitSet changed = new BitSet();
+    private final Timer debounce;
+    private final List<Runnable> detach = new ArrayList<>();
+
+    private BiConsumer<String, String> listener = (field, message) -> { };
+    /**
+     * Action deferred by {@link #submit(Runnable)} until running validations pass.
+     */
+    private Runnable pending;
+
+    /**
+     * Creates validator of form rows and starts listening to changes.
+     *
+     * @param rows       form rows
+     * @param validation compiled validation
+     * @param executor   executor of expensive validators
+     * @param delay      debounce delay in milliseconds
+     */
+    FormValidator(FormRows<?> rows, MelchiorValidation validation, Executor executor, int delay) {
+        this.rows = rows;
+        this.validation = validation;
+        this.executor = executor;
+
+        int n = validation.size();
+        errors = new String[n];
+        generations = new int[n];
+        running = new AsyncCheck[n];
+        borders = new Border[n];
+        tooltips = new String[n];
+
+        debounce = new Timer(delay, e -> flush());
+        debounce.setRepeats(false);
+
+        for (int i = 0; i < n; ++i) {
+            if (rows.bindings[i] == null || !affectsValidation(i)) {
+                continue;
+            }
+            final int field = i;
+            detach.add(ComponentChanges.listen(rows.bindings[i].widget().javaComponent(), () -> changed(field)));
+        }
+    }
+
+    /**
+     * Sets listener of validation results.
+     *
+     * @param listener accepts field name and error message ({@code null} if field became valid)
+     */
+    public void setListener(BiConsumer<String, String> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Validates all fields immediately. Expensive validators are started asynchronously.
+     *
+     * @return {@code false} if any field is invalid according to cheap validators
+     */
+    public boolean validateAll() {
+        debounce.stop();
+        changed.clear();
+        boolean valid = true;
+        for (int i = 0; i < errors.length; ++i) {
+            valid &= validate(i);
+        }
+        return valid;
+    }
+
+    /**
+     * Validates all fields and performs action once form is known to be valid. <br>
+     * If expensive validators are running, action is deferred until all of them pass. Deferred action is dropped
+     * if any field turns out invalid, form is changed or validator is closed meanwhile.
+     *
+     * @param action the operation to perform on valid form, e.g. saving it
+     *
+     * @return {@code false} if any field is invalid according to cheap validators
+     */
+    public boolean submit(Runnable action) {
+        pending = null;
+        if (!validateAll()) {
+            return false;
+        }
+        if (isValid()) {
+            action.run();
+        } else {
+            pending = action;
+        }
+        return true;
+    }
+
+    /**
+     * Whether action passed to {@link #submit(Runnable)} waits for running validations.
+     *
+     * @return {@code true} if submission is pending
+     */
+    public boolean isSubmitting() {
+        return pending != null;
+    }
+
+    /**
+     * Whether all fields are known to be valid, i.e. there are no errors and no running validations.
+     *
+     * @return {@code true} if form is valid
+     */
+    public boolean isValid() {
+        for (int i = 0; i < errors.length; ++i) {
+            if (errors[i] != null || running[i] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns current error messages.
+     *
+     * @return error messages by field name
+     */
+    public Map<String, String> getErrors() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < errors.length; ++i) {
+            if (errors[i] != null) {
+                result.put(validation.get(i).getName(), errors[i]);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Stops validation, cancels running validators and removes error decorations.
+     */
+    public void close() {
+        pending = null;
+        debounce.stop();
+        for (Runnable r : detach) {
+            r.run();
+        }
+        detach.clear();
+        for (int i = 0; i < errors.length; ++i) {
+            cancel(i);
+            if (errors[i] != null) {
+                show(i, null);
+            }
+        }
+    }
+
+    private boolean affectsValidation(int i) {
+        FieldValidation f = validation.get(i);
+        if (f.isValidated()) {
+            return true;
+        }
+        for (int k = 0; k < f.dependentCount(); ++k) {
+            if (validation.get(f.getDependent(k)).isValidated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void changed(int field) {
+        pending = null;
+        changed.set(field);
+        debounce.restart();
+    }
+
+    /**
+     * Validates changed fields and their dependents.
+     */
+    private void flush() {
+        BitSet targets = new BitSet();
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            targets.set(i);
+            FieldValidation f = validation.get(i);
+            for (int k = 0; k < f.dependentCount(); ++k) {
+                targets.set(f.getDependent(k));
+            }
+        }
+        changed.clear();
+        for (int i = targets.nextSetBit(0); i >= 0; i = targets.nextSetBit(i + 1)) {
+            validate(i);
+        }
+    }
+
+    /**
+     * Validates single field, starts its expensive validators if cheap ones have passed.
+     *
+     * @return {@code false} if field is invalid according to cheap validators
+     */
+    private boolean validate(int i) {
+        FieldValidation f = validation.get(i);
+        WidgetBinding<?> binding = rows.bindings[i];
+        if (!f.isValidated() || binding == null) {
+            return true;
+        }
+        cancel(i);
+        int generation = ++generations[i];
+
+        Object value;
+        try {
+            value = binding.getValue();
+        } catch (MelchiorAccessException ex) {
+            show(i, "Invalid value");
+            return false;
+        }
+        Function<String, Object> values = dependencyValues(f);
+        String msg = f.validate(value, values);
+        if (msg != null || !f.isAsync()) {
+            show(i, msg);
+            return msg == null;
+        }
+
+        AsyncCheck check = new AsyncCheck(i, generation, value, values);
+        running[i] = check;
+        executor.execute(check);
+        return true;
+    }
+
+    /**
+     * Takes snapshot of values of fields which validation depends on, so it may be used off the EDT.
+     */
+    private Function<String, Object> dependencyValues(FieldValidation f) {
+        List<String> dependencies = f.getDependencies();
+        if (dependencies.isEmpty()) {
+            return NO_VALUES;
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (String name : dependencies) {
+            int j = rows.plan.indexOf(name);
+            values.put(name, rows.bindings[j] == null ? null : fieldValue(rows.bindings[j]));
+        }
+        return values::get;
+    }
+
+    /**
+     * Returns widget value converted to field type, {@code null} if it can't be converted.
+     */
+    private static Object fieldValue(WidgetBinding<?> binding) {
+        try {
+            return binding.getValue();
+        } catch (MelchiorAccessException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Performs or drops deferred submission when validation result arrives.
+     */
+    private void settle() {
+        if (pending == null) {
+            return;
+        }
+        for (int i = 0; i < errors.length; ++i) {
+            if (errors[i] != null) {
+                pending = null;
+                return;
+            }
+        }
+        if (isValid()) {
+            Runnable action = pending;
+            pending = null;
+            action.run();
+        }
+    }
+
+    private void cancel(int i) {
+        AsyncCheck check = running[i];
+        if (check != null) {
+            check.cancel();
+            running[i] = null;
+        }
+    }
+
+    /**
+     * Shows validation result of field.
+     */
+    private void show(int i, String msg) {
+        String old = errors[i];
+        errors[i] = msg;
+        JComponent cmpt = rows.bindings[i].widget().javaComponent();
+        if (old == null && msg != null) {
+            borders[i] = cmpt.getBorder();
+            tooltips[i] = cmpt.getToolTipText();
+            cmpt.setBorder(borders[i] == null ? INVALID_BORDER : BorderFactory.createCompoundBorder(INVALID_BORDER, borders[i]));
+        }
+        if (msg != null) {
+            cmpt.setToolTipText(msg);
+        } else if (old != null) {
+            cmpt.setBorder(borders[i]);
+            cmpt.setToolTipText(tooltips[i]);
+            borders[i] = null;
+            tooltips[i] = null;
+        }
+        if (!Objects.equals(old, msg)) {
+            listener.accept(validation.get(i).getName(), msg);
+        }
+    }
+
+    /**
+     * Run of expensive validators of single field. <br>
+     * Cancellation interrupts thread which runs validators, result of cancelled or stale run is discarded.
+     */
+    private final class AsyncCheck implements Runnable {
+
+        final int field;
+        final int generation;
+        final Object value;
+        final Function<String, Object> values;
+
+        private Thread runner;
+        private boolean cancelled;
+
+        AsyncCheck(int field, int generation, Object value, Function<String, Object> values) {
+            this.field = field;
+            this.generation = generation;
+            this.value = value;
+            this.values = values;
+        }
+
+        @Override public void run() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            String msg;
+            try {
+                msg = validation.get(field).validateAsync(value, values);
+            } catch (CancellationException ex) {
+                return;
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Validator of `{}` failed", validation.get(field).getName(), ex);
+                msg = "Validation failed: " + ex.getMessage();
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    if (cancelled) {
+                        // clear interruption caused by cancellation, so it doesn't leak to next task of executor
+                        Thread.interrupted();
+                    }
+                }
+            }
+            String result = msg;
+            SwingUtilities.invokeLater(() -> {
+                if (generations[field] == generation && running[field] == this) {
+                    running[field] = null;
+                    show(field, result);
+                    settle();
+                }
+            });
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.commons.TextSource;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Editor of large text field ({@code String} annotated with
+ * {@link com.github.noxchimaera.melchior.core.annotations.LargeText} or {@link TextSource}). <br>
+ * Content is loaded when editor is shown for the first time: it is read in chunks by background thread
+ * and appended to document on the Event Dispatch Thread chunk by chunk, so EDT is not blocked and
+ * whole text is never held twice. Text is written back to object only if user has edited it:
+ * {@link TextSource} field gets source over copy of text taken on save, the document is copied
+ * segment by segment into owned buffer, so the source neither refers to editor nor sees later edits.
+ *
+ * @author Max Balushkin
+ */
+final class LargeTextPanel extends JPanel implements FieldEditor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LargeTextPanel.class);
+
+    private static final int CHUNK = 64 * 1024;
+
+    private final MelchiorFieldContext field;
+    private final Object owner;
+
+    private final JTextArea area;
+    private final JLabel status;
+
+    private boolean started;
+    private Loader loader;
+    /**
+     * Set while loaded chunks are appended, so they are not taken for user edits.
+     */
+    private boolean loading;
+    private boolean edited;
+
+    /**
+     * Creates editor, content is not loaded until editor is shown.
+     *
+     * @param field field
+     * @param owner object which contains field
+     */
+    LargeTextPanel(MelchiorFieldContext field, Object owner) {
+        super(new BorderLayout());
+        this.field = field;
+        this.owner = owner;
+
+        area = new JTextArea(12, 40);
+        area.setEditable(false);
+        area.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) {
+                changed();
+            }
+
+            @Override public void removeUpdate(DocumentEvent e) {
+                changed();
+            }
+
+            @Override public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        add(new JScrollPane(area), BorderLayout.CENTER);
+
+        status = new JLabel(" ");
+        add(status, BorderLayout.SOUTH);
+
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) {
+                load();
+            }
+        });
+    }
+
+    /**
+     * Starts loading of content if it is not started yet.
+     */
+    void load() {
+        if (started) {
+            return;
+        }
+        started = true;
+        Object value = field.getAccessor().get(owner);
+        if (value == null) {
+            loaded();
+            return;
+        }
+        TextSource source = value instanceof TextSource
+            ? (TextSource)value
+            : () -> new StringReader(value.toString());
+        status.setText("Loading...");
+        loader = new Loader(source);
+        loader.execute();
+    }
+
+    private void changed() {
+        if (!loading) {
+            edited = true;
+        }
+    }
+
+    private void loaded() {
+        area.setEditable(!field.isReadonly());
+        area.setCaretPosition(0);
+        status.setText(" ");
+    }
+
+    @Override public void save(Object owner, String prefix, Set<String> changed) {
+        if (!edited) {
+            return;
+        }
+        Document doc = area.getDocument();
+        Object value;
+        if (field.getFieldType() == TextSource.class) {
+            char[] text = copy(doc);
+            value = (TextSource)() -> new CharArrayReader(text);
+        } else {
+            try {
+                value = doc.getText(0, doc.getLength());
+            } catch (BadLocationException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        field.getAccessor().set(owner, value);
+        edited = false;
+        changed.add(prefix + field.getName());
+    }
+
+    @Override public boolean isModified() {
+        return edited;
+    }
+
+    @Override public void release() {
+        if (loader != null) {
+            loader.cancel(true);
+        }
+    }
+
+    /**
+     * Copies text of document segment by segment, without intermediate strings.
+     */
+    private static char[] copy(Document doc) {
+        char[][] text = { null };
+        doc.render(() -> {
+            char[] buffer = new char[doc.getLength()];
+            Segment segment = new Segment();
+            segment.setPartialReturn(true);
+            int position = 0;
+            try {
+                while (position < buffer.length) {
+                    doc.getText(position, buffer.length - position, segment);
+                    System.arraycopy(segment.array, segment.offset, buffer, position, segment.count);
+                    position += segment.count;
+                }
+            } catch (BadLocationException ex) {
+                throw new IllegalStateException(ex);
+            }
+            text[0] = buffer;
+        });
+        return text[0];
+    }
+
+    /**
+     * Reads text in background and appends it on the EDT.
+     */
+    private final class Loader extends SwingWorker<Void, String> {
+
+        private final TextSource source;
+
+        Loader(TextSource source) {
+            this.source = source;
+        }
+
+        @Override protected Void doInBackground() throws IOException {
+            try (Reader reader = source.open()) {
+                char[] buffer = new char[CHUNK];
+                int n;
+                while (!isCancelled() && (n = reader.read(buffer)) > 0) {
+                    publish(new String(buffer, 0, n));
+                }
+            }
+            return null;
+        }
+
+        @Override protected void process(List<String> chunks) {
+            if (isCancelled()) {
+                return;
+            }
+            Document doc = area.getDocument();
+            loading = true;
+            try {
+                for (String chunk : chunks) {
+                    doc.insertString(doc.getLength(), chunk, null);
+                }
+            } catch (BadLocationException ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                loading = false;
+            }
+        }
+
+        @Override protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                get();
+                loaded();
+            } catch (Exception ex) {
+                LOGGER.warn("Can't load `{}`", field.getName(), ex);
+                status.setText("Can't load text: " + ex.getMessage());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.components.WidgetBinding;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pushes changes of edited object to open form. <br>
+ * Notification methods may be called from any thread at any rate. Changes are coalesced per field
+ * (only the latest value is kept) and applied to widgets in one pass on the Event Dispatch Thread,
+ * at most once per refresh interval. Only widgets whose value has changed are set,
+ * widgets modified by user are left untouched.
+ *
+ * @author Max Balushkin
+ */
+public final class LiveUpdates {
+
+    /**
+     * Default refresh interval, about one frame at 60 Hz.
+     */
+    public static final int DEFAULT_INTERVAL = 16;
+
+    /**
+     * Marks field without pending change.
+     */
+    private static final Object NO_CHANGE = new Object();
+    /**
+     * Marks field whose value should be read from object on refresh.
+     */
+    private static final Object READ = new Object();
+
+    private final MelchiorFormPlan plan;
+    private final FormRows<?> rows;
+    private final Object bean;
+
+    /**
+     * Pending values indexed as fields of plan.
+     */
+    private final AtomicReferenceArray<Object> pending;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Timer timer;
+
+    private volatile boolean closed;
+    /**
+     * History of form, refreshes are not recorded in it.
+     */
+    private FormHistory history;
+
+    /**
+     * Creates live updates of form rows.
+     *
+     * @param rows     form rows
+     * @param bean     edited object
+     * @param interval minimal interval between refreshes in milliseconds
+     */
+    LiveUpdates(FormRows<?> rows, Object bean, int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Refresh interval must not be negative: " + interval);
+        }
+        this.plan = rows.plan;
+        this.rows = rows;
+        this.bean = bean;
+
+        pending = new AtomicReferenceArray<>(plan.size());
+        for (int i = 0; i < pending.length(); ++i) {
+            pending.lazySet(i, NO_CHANGE);
+        }
+        timer = new Timer(interval, e -> refresh());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Notifies that field of object has changed. Its value is read from object on refresh.
+     *
+     * @param field field name
+     */
+    public void fieldChanged(String field) {
+        post(index(field), READ);
+    }
+
+    /**
+     * Notifies that field of object has changed.
+     *
+     * @param field field name
+     * @param value new value
+     */
+    public void fieldChanged(String field, Object value) {
+        post(index(field), value);
+    }
+
+    /**
+     * Notifies that all fields of object may have changed.
+     */
+    public void allChanged() {
+        for (int i = 0; i < pending.length(); ++i) {
+            pending.set(i, READ);
+        }
+        schedule();
+    }
+
+    /**
+     * Stops refreshing, pending changes are discarded.
+     */
+    public void close() {
+        closed = true;
+        timer.stop();
+    }
+
+    void setHistory(FormHistory history) {
+        this.history = history;
+    }
+
+    private int index(String field) {
+        int i = plan.indexOf(field);
+        if (i < 0) {
+            throw new IllegalArgumentException(String.format(
+                "No field `%s` in `%s`", field, plan.getContext().getOfClass().getName()));
+        }
+        return i;
+    }
+
+    private void post(int i, Object value) {
+        if (pending.getAndSet(i, value) == NO_CHANGE) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (!closed && scheduled.compareAndSet(false, true)) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Applies pending changes, called on the Event Dispatch Thread.
+     */
+    private void refresh() {
+        // changes posted after this point schedule next refresh
+        scheduled.set(false);
+        if (closed) {
+            return;
+        }
+        for (int i = 0; i < pending.length(); ++i) {
+            if (pending.get(i) == NO_CHANGE) {
+                continue;
+            }
+            Object value = pending.getAndSet(i, NO_CHANGE);
+            WidgetBinding<?> binding = rows.bindings[i];
+            if (binding == null) {
+                continue;
+            }
+            Object v = value == READ ? binding.field().getAccessor().get(bean) : value;
+            if (history != null) {
+                history.external(i, () -> binding.refresh(v));
+            } else {
+                binding.refresh(v);
+            }
+        }
+    }
+
+}
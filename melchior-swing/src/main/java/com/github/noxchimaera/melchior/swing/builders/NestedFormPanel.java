@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Form of nested object, built when user expands it. <br>
+ * Context of nested class is taken from shared cache, so repeated nested types are scanned once.
+ * Object which is already being edited by enclosing form is not expanded again.
+ *
+ * @param <J> UI component type
+ *
+ * @author Max Balushkin
+ */
+final class NestedFormPanel<J extends JComponent> extends JPanel implements FieldEditor {
+
+    private final MelchiorFieldContext field;
+    private final WidgetFactory<J> factory;
+    private final Object owner;
+    private final List<Object> path;
+
+    private final JToggleButton toggle;
+    private JPanel content;
+
+    /**
+     * Nested object, {@code null} until form is expanded.
+     */
+    private Object value;
+    /**
+     * Whether nested object was created by form, so it must be set to owner on save if user has edited it.
+     */
+    private boolean created;
+    private FormRows<J> rows;
+
+    /**
+     * Creates collapsed nested form.
+     *
+     * @param field   field of nested object
+     * @param factory widget factory
+     * @param owner   object which contains nested object
+     * @param path    objects enclosing nested object
+     */
+    NestedFormPanel(MelchiorFieldContext field, WidgetFactory<J> factory, Object owner, List<Object> path) {
+        super(new BorderLayout());
+        this.field = field;
+        this.factory = factory;
+        this.owner = owner;
+        this.path = path;
+
+        toggle = new JToggleButton("Show");
+        toggle.setHorizontalAlignment(SwingConstants.LEFT);
+        toggle.addActionListener(e -> setExpanded(toggle.isSelected()));
+        add(toggle, BorderLayout.NORTH);
+    }
+
+    /**
+     * Shows or hides nested form, builds it on first show.
+     *
+     * @param expanded whether to show form
+     */
+    void setExpanded(boolean expanded) {
+        toggle.setSelected(expanded);
+        toggle.setText(expanded ? "Hide" : "Show");
+        if (expanded && content == null) {
+            content = new JPanel(new GridBagLayout());
+            content.setBorder(BorderFactory.createEtchedBorder());
+            build();
+            add(content, BorderLayout.CENTER);
+        }
+        if (content != null) {
+            content.setVisible(expanded);
+        }
+        revalidate();
+        Window window = SwingUtilities.getWindowAncestor(this);
+        if (window != null) {
+            window.pack();
+        }
+    }
+
+    private void build() {
+        value = field.getAccessor().get(owner);
+        if (value == null) {
+            if (field.isReadonly()) {
+                content.add(new JLabel("Empty"));
+                return;
+            }
+            try {
+                value = field.getFieldType().newInstance();
+                created = true;
+            } catch (ReflectiveOperationException ex) {
+                content.add(new JLabel("Can't create " + field.getFieldType().getSimpleName()));
+                return;
+            }
+        }
+        for (Object o : path) {
+            if (o == value) {
+                content.add(new JLabel("Refers to enclosing object"));
+                value = null;
+                return;
+            }
+        }
+        List<Object> nestedPath = new ArrayList<>(path.size() + 1);
+        nestedPath.addAll(path);
+        nestedPath.add(value);
+        rows = new FormRows<>(content, MelchiorClassContext.of(value.getClass()).getPlan(), factory, value, null, nestedPath);
+        if (field.isReadonly()) {
+            setEnabledDeep(content, false);
+        }
+    }
+
+    private static void setEnabledDeep(Container c, boolean enabled) {
+        for (Component child : c.getComponents()) {
+            child.setEnabled(enabled);
+            if (child instanceof Container) {
+                setEnabledDeep((Container)child, enabled);
+            }
+        }
+    }
+
+    @Override public void save(Object owner, String prefix, Set<String> changed) {
+        if (rows == null) {
+            return;
+        }
+        if (created && !rows.isModified()) {
+            // blank object is not set to owner until user fills it
+            return;
+        }
+        rows.save(value, prefix + field.getName() + ".", changed);
+        if (created) {
+            field.getAccessor().set(owner, value);
+            created = false;
+            changed.add(prefix + field.getName());
+        }
+    }
+
+    @Override public boolean isModified() {
+        return rows != null && rows.isModified();
+    }
+
+    @Override public void release() {
+        if (rows != null) {
+            rows.release(factory);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.convert.ValueConversion;
+import com.github.noxchimaera.melchior.swing.table.BeanTableModel;
+import com.github.noxchimaera.melchior.swing.table.WidgetCellEditor;
+
+import javax.swing.*;
+import javax.swing.table.TableColumn;
+import java.util.List;
+
+/**
+ * Builds table for bulk editing of objects of the same class. <br>
+ * Columns are fields of class context, widgets of factory are used as cell editors.
+ * Only visible rows are rendered, so table may hold large number of objects.
+ *
+ * @param <T> data type
+ * @param <J> UI component type
+ *
+ * @author Max Balushkin
+ */
+public class SwingTableBuilder<T, J extends JComponent> {
+
+    private MelchiorClassContext context;
+    private WidgetFactory<J> factory;
+
+    private BeanTableModel<T> model;
+
+    public SwingTableBuilder(MelchiorClassContext context, WidgetFactory<J> factory) {
+        this.context = context;
+        this.factory = factory;
+    }
+
+    /**
+     * Creates table over specified list. <br>
+     * List is not copied, table edits its items directly.
+     *
+     * @param rows objects to edit
+     *
+     * @return table
+     */
+    public JTable create(List<T> rows) {
+        model = new BeanTableModel<>(context, rows);
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(false);
+        table.setFillsViewportHeight(true);
+
+        int rowHeight = table.getRowHeight();
+        for (int i = 0; i < model.getColumnCount(); ++i) {
+            if (model.getField(i).isReadonly()) {
+                continue;
+            }
+            MelchiorWidget<J> widget = factory.get(model.getField(i).getFieldType());
+            if (widget == null) {
+                continue;
+            }
+            TableColumn column = table.getColumnModel().getColumn(i);
+            column.setCellEditor(new WidgetCellEditor<>(widget, ValueConversion.resolve(widget.getValueType(), model.getField(i).getFieldType())));
+            rowHeight = Math.max(rowHeight, widget.javaComponent().getPreferredSize().height);
+        }
+        table.setRowHeight(rowHeight);
+        return table;
+    }
+
+    /**
+     * Returns model of created table.
+     *
+     * @return table model or {@code null} if table is not created yet
+     */
+    public BeanTableModel<T> getModel() {
+        return model;
+    }
+
+}
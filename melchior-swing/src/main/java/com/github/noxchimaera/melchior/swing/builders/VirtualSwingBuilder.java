@@ -0,0 +1,459 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.builders;
+
+import com.github.noxchimaera.melchior.core.commons.functional.Proc;
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.components.WidgetBinding;
+import com.github.noxchimaera.melchior.core.components.WidgetFactory;
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+import com.github.noxchimaera.melchior.core.metrics.MelchiorMetrics;
+import com.github.noxchimaera.melchior.core.metrics.Metrics;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Builds form for classes with many fields. <br>
+ * Form is placed in scroll viewport and only rows of visible fields have real components,
+ * which are recycled while form is scrolled. Each row is bound to its field by {@link WidgetBinding};
+ * widget values of edited rows which are recycled are kept by builder and bound again on save,
+ * so only fields the user changed are applied to object, as in {@link BasicSwingBuilder}. <br>
+ * Only fields edited by single widget get rows: nested objects, collections and large texts
+ * (fields which {@link BasicSwingBuilder} edits with panels) are not shown and kept unchanged.
+ *
+ * @param <T> data type
+ * @param <J> UI component type
+ *
+ * @author Max Balushkin
+ */
+public class VirtualSwingBuilder<T, J extends JComponent> {
+
+    private static final int INSETS = 5;
+    private static final int DEFAULT_VISIBLE_ROWS = 15;
+    private static final int DEFAULT_WIDGET_WIDTH = 240;
+
+    /**
+     * Marks recycled rows which were not edited.
+     */
+    private static final Object UNEDITED = new Object();
+
+    private MelchiorClassContext context;
+    private WidgetFactory<J> factory;
+
+    private MelchiorFormPlan plan;
+    /**
+     * Fields shown in form, as indices of plan in display order.
+     */
+    private int[] shown;
+    /**
+     * Display position of each field of plan, {@code -1} for fields which are not shown.
+     */
+    private int[] positions;
+    /**
+     * Field values loaded from object or saved last time.
+     */
+    private Object[] values;
+    /**
+     * Widget values of edited rows which were recycled, {@link #UNEDITED} for other fields.
+     */
+    private Object[] edits;
+    /**
+     * Rows with components, {@code null} for rows out of viewport.
+     */
+    private Row<J>[] rows;
+
+    private Map<Class, ArrayDeque<MelchiorWidget<J>>> widgetPool;
+    private ArrayDeque<JLabel> labelPool;
+
+    private int rowHeight;
+    private int labelWidth;
+    private int visibleRows;
+
+    private RowsPanel rowsPanel;
+    private JScrollPane scrollPane;
+    private JButton cancelButton;
+    private JButton okButton;
+
+    private T data;
+    private JFrame frame;
+
+    public VirtualSwingBuilder(MelchiorClassContext context, WidgetFactory<J> factory) {
+        this.context = context;
+        this.factory = factory;
+        plan = context.getPlan();
+        widgetPool = new HashMap<>();
+        labelPool = new ArrayDeque<>();
+        visibleRows = DEFAULT_VISIBLE_ROWS;
+    }
+
+    /**
+     * Sets number of rows visible without scrolling.
+     *
+     * @param visibleRows number of rows
+     *
+     * @return self
+     */
+    public VirtualSwingBuilder<T, J> visibleRows(int visibleRows) {
+        this.visibleRows = visibleRows;
+        return this;
+    }
+
+    /**
+     * Returns widget of field. <br>
+     * If row of field is out of viewport it gets components anyway and is not recycled anymore.
+     *
+     * @param field field name
+     *
+     * @return widget or {@code null} if there is no such field or it is not shown
+     */
+    public MelchiorWidget<J> getWidget(String field) {
+        int i = plan.indexOf(field);
+        if (i < 0 || rows == null || positions[i] < 0) {
+            return null;
+        }
+        Row<J> row = rows[i];
+        if (row == null) {
+            row = materialize(i);
+            rowsPanel.revalidate();
+        }
+        row.pinned = true;
+        return row.binding.widget();
+    }
+
+    public JFrame create(Consumer<T> onOk, Proc onCancel) throws ReflectiveOperationException {
+        frame = new JFrame();
+        frame.setContentPane(init());
+        frame.pack();
+        JFrame f = frame;
+        okButton.addActionListener(e -> { save(); onOk.accept(data); f.setVisible(false); });
+        cancelButton.addActionListener(e -> { f.setVisible(false); onCancel.exec(); });
+        return f;
+    }
+
+    /**
+     * Creates form content without frame, e.g. to embed it into another window. <br>
+     * Does not require display, so it may be used in headless mode.
+     *
+     * @param onOk     the operation to perform on Ok, accepts object and names of changed fields
+     * @param onCancel the operation to perform on Cancel
+     *
+     * @return form content
+     *
+     * @throws ReflectiveOperationException if object can't be created
+     */
+    public JComponent createContent(BiConsumer<T, Set<String>> onOk, Proc onCancel) throws ReflectiveOperationException {
+        JComponent content = init();
+        okButton.addActionListener(e -> onOk.accept(data, save()));
+        cancelButton.addActionListener(e -> onCancel.exec());
+        return content;
+    }
+
+    private JComponent init() throws ReflectiveOperationException {
+        data = (T)context.getOfClass().newInstance();
+
+        final int n = plan.size();
+        values = new Object[n];
+        edits = new Object[n];
+        Arrays.fill(edits, UNEDITED);
+        rows = new Row[n];
+        positions = new int[n];
+        shown = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; ++i) {
+            values[i] = plan.getField(i).getAccessor().get(data);
+            if (!plan.isLargeText(i) && factory.supports(plan.getWidgetType(i))) {
+                positions[i] = count;
+                shown[count++] = i;
+            } else {
+                positions[i] = -1;
+            }
+        }
+        shown = Arrays.copyOf(shown, count);
+        measure();
+
+        Box box = Box.createVerticalBox();
+
+        JLabel header = new JLabel(plan.getTitle());
+        header.setAlignmentX(JComponent.CENTER_ALIGNMENT);
+        box.add(header);
+
+        rowsPanel = new RowsPanel();
+        scrollPane = new JScrollPane(rowsPanel,
+            ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        scrollPane.getViewport().addChangeListener(e -> updateRows());
+        box.add(scrollPane);
+
+        box.add(Box.createVerticalStrut(8));
+
+        JPanel controlPanel = new JPanel(new FlowLayout());
+        okButton = new JButton("Ok");
+        controlPanel.add(okButton);
+
+        cancelButton = new JButton("Cancel");
+        controlPanel.add(cancelButton);
+
+        controlPanel.setAlignmentX(JComponent.LEFT_ALIGNMENT);
+        box.add(controlPanel);
+        return box;
+    }
+
+    /**
+     * Computes row height and label column width. <br>
+     * One widget of each field type is created to measure it, then it goes to pool.
+     */
+    private void measure() {
+        JLabel probe = new JLabel();
+        FontMetrics metrics = probe.getFontMetrics(probe.getFont());
+        int height = probe.getPreferredSize().height;
+        int width = 0;
+        for (int i : shown) {
+            width = Math.max(width, metrics.stringWidth(plan.getLabel(i)));
+            ArrayDeque<MelchiorWidget<J>> pool = widgetPool.computeIfAbsent(plan.getWidgetType(i), k -> new ArrayDeque<>());
+            if (pool.isEmpty()) {
+                MelchiorWidget<J> widget = factory.get(plan.getWidgetType(i));
+                height = Math.max(height, widget.javaComponent().getPreferredSize().height);
+                pool.push(widget);
+            }
+        }
+        rowHeight = height + 2 * INSETS;
+        labelWidth = width + 2 * INSETS;
+    }
+
+    /**
+     * Creates components for rows in viewport and recycles the others.
+     */
+    private void updateRows() {
+        if (shown.length == 0) {
+            return;
+        }
+        Rectangle view = scrollPane.getViewport().getViewRect();
+        int first = Math.max(0, view.y / rowHeight);
+        int last = Math.min(shown.length - 1, (view.y + view.height) / rowHeight);
+
+        boolean changed = false;
+        for (int i = 0; i < rows.length; ++i) {
+            Row<J> row = rows[i];
+            if (row != null && !row.pinned && (positions[i] < first || positions[i] > last)) {
+                recycle(i);
+                changed = true;
+            }
+        }
+        for (int p = first; p <= last; ++p) {
+            int i = shown[p];
+            if (rows[i] == null) {
+                materialize(i);
+                changed = true;
+            }
+        }
+        if (changed) {
+            rowsPanel.revalidate();
+            rowsPanel.repaint();
+        }
+    }
+
+    private Row<J> materialize(int i) {
+        MelchiorFieldContext f = plan.getField(i);
+
+        JLabel label = labelPool.isEmpty() ? new JLabel() : labelPool.pop();
+        label.setText(plan.getLabel(i));
+
+        WidgetBinding<J> binding = bind(i);
+        MelchiorWidget<J> widget = binding.widget();
+        edits[i] = UNEDITED;
+        widget.javaComponent().setEnabled(!f.isReadonly());
+
+        Row<J> row = new Row<>(label, binding);
+        rows[i] = row;
+        rowsPanel.add(label);
+        rowsPanel.add(widget.javaComponent());
+        rowsPanel.place(i, row);
+        return row;
+    }
+
+    /**
+     * Binds pooled (or new) widget to field, loads field value and restores edit of recycled row.
+     */
+    private WidgetBinding<J> bind(int i) {
+        ArrayDeque<MelchiorWidget<J>> pool = widgetPool.get(plan.getWidgetType(i));
+        MelchiorWidget<J> widget = pool != null && !pool.isEmpty() ? pool.pop() : factory.get(plan.getWidgetType(i));
+        WidgetBinding<J> binding = WidgetBinding.of(plan.getField(i), widget);
+        binding.loadValue(values[i]);
+        if (edits[i] != UNEDITED) {
+            // widgets of the same field type hold values of the same type
+            widget.set(edits[i]);
+        }
+        return binding;
+    }
+
+    /**
+     * Keeps widget value if it was edited and returns widget to pool.
+     */
+    private void unbind(int i, WidgetBinding<J> binding) {
+        MelchiorWidget<J> widget = binding.widget();
+        edits[i] = binding.isModified() ? widget.get() : UNEDITED;
+        widgetPool.computeIfAbsent(plan.getWidgetType(i), k -> new ArrayDeque<>()).push(widget);
+    }
+
+    private void recycle(int i) {
+        Row<J> row = rows[i];
+        rows[i] = null;
+        rowsPanel.remove(row.label);
+        rowsPanel.remove(row.binding.widget().javaComponent());
+        labelPool.push(row.label);
+        unbind(i, row.binding);
+    }
+
+    /**
+     * Sets modified fields of object. Called when user presses Ok. <br>
+     * Edits of recycled rows are bound to pooled widgets again, so they are compared
+     * and converted the same way as edits of rows in viewport.
+     *
+     * @return names of changed fields
+     */
+    public Set<String> save() {
+        MelchiorMetrics.Span span = Metrics.begin(MelchiorMetrics.Phase.SAVE, context.getOfClass().getName());
+        Set<String> changed = new LinkedHashSet<>();
+        for (int i : shown) {
+            MelchiorFieldContext f = plan.getField(i);
+            if (f.isReadonly() || rows[i] == null && edits[i] == UNEDITED) {
+                continue;
+            }
+            WidgetBinding<J> binding = rows[i] != null ? rows[i].binding : bind(i);
+            try {
+                if (binding.storeIfModified(data)) {
+                    values[i] = f.getAccessor().get(data);
+                    changed.add(f.getName());
+                }
+            } finally {
+                if (rows[i] == null) {
+                    unbind(i, binding);
+                }
+            }
+        }
+        span.finish(changed.size());
+        return changed;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    /**
+     * Disposes created frame and returns all widgets to factory pool (see {@link WidgetFactory#setPoolSize(int)}).
+     */
+    public void dispose() {
+        if (frame != null) {
+            frame.dispose();
+            frame = null;
+        }
+        for (int i = 0; rows != null && i < rows.length; ++i) {
+            if (rows[i] != null) {
+                recycle(i);
+            }
+        }
+        for (ArrayDeque<MelchiorWidget<J>> pool : widgetPool.values()) {
+            for (MelchiorWidget<J> widget : pool) {
+                factory.release(widget);
+            }
+        }
+        widgetPool.clear();
+        labelPool.clear();
+    }
+
+    /**
+     * Label and widget of single field.
+     */
+    private static class Row<J extends JComponent> {
+
+        final JLabel label;
+        final WidgetBinding<J> binding;
+        /**
+         * Whether row is requested by {@link #getWidget(String)} and must not be recycled.
+         */
+        boolean pinned;
+
+        Row(JLabel label, WidgetBinding<J> binding) {
+            this.label = label;
+            this.binding = binding;
+        }
+
+    }
+
+    /**
+     * Panel of full form height which lays out only existing rows.
+     */
+    private class RowsPanel extends JPanel implements Scrollable {
+
+        RowsPanel() {
+            super(null);
+        }
+
+        void place(int i, Row<J> row) {
+            int y = positions[i] * rowHeight + INSETS;
+            int h = rowHeight - 2 * INSETS;
+            int w = Math.max(0, getWidth() - labelWidth - 2 * INSETS);
+            row.label.setBounds(INSETS, y, labelWidth - 2 * INSETS, h);
+            row.binding.widget().javaComponent().setBounds(labelWidth + INSETS, y, w, h);
+        }
+
+        @Override public void doLayout() {
+            for (int i = 0; i < rows.length; ++i) {
+                if (rows[i] != null) {
+                    place(i, rows[i]);
+                }
+            }
+        }
+
+        @Override public Dimension getPreferredSize() {
+            return new Dimension(labelWidth + DEFAULT_WIDGET_WIDTH + 2 * INSETS, shown.length * rowHeight);
+        }
+
+        @Override public Dimension getPreferredScrollableViewportSize() {
+            Dimension size = getPreferredSize();
+            return new Dimension(size.width, Math.min(size.height, visibleRows * rowHeight));
+        }
+
+        @Override public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return rowHeight;
+        }
+
+        @Override public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return Math.max(rowHeight, (visibleRect.height / rowHeight - 1) * rowHeight);
+        }
+
+        @Override public boolean getScrollableTracksViewportWidth() {
+            return true;
+        }
+
+        @Override public boolean getScrollableTracksViewportHeight() {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.table;
+
+import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFieldContext;
+import com.github.noxchimaera.melchior.core.context.MelchiorFormPlan;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Table model over list of objects of the same class. <br>
+ * Each column represents field of class context in {@code order} sequence,
+ * read only fields are not editable. Model reads and writes values of the list items directly,
+ * list is not copied.
+ *
+ * @param <T> data type
+ *
+ * @author Max Balushkin
+ */
+public class BeanTableModel<T> extends AbstractTableModel {
+
+    private final MelchiorFormPlan plan;
+    private final Class[] columnClasses;
+    private final List<T> rows;
+
+    /**
+     * Creates table model.
+     *
+     * @param context class context
+     * @param rows    table rows, changes of list must be reported through model
+     */
+    public BeanTableModel(MelchiorClassContext context, List<T> rows) {
+        plan = context.getPlan();
+        columnClasses = new Class[plan.size()];
+        for (int i = 0; i < columnClasses.length; ++i) {
+            columnClasses[i] = boxed(plan.getField(i).getFieldType());
+        }
+        this.rows = rows;
+    }
+
+    /**
+     * Returns field context of column.
+     *
+     * @param column column index
+     *
+     * @return field context
+     */
+    public MelchiorFieldContext getField(int column) {
+        return plan.getField(column);
+    }
+
+    /**
+     * Returns object of row.
+     *
+     * @param row row index
+     *
+     * @return object
+     */
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Appends rows to the end of table.
+     *
+     * @param items new rows
+     */
+    public void addRows(Collection<? extends T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        int first = rows.size();
+        rows.addAll(items);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    /**
+     * Removes row.
+     *
+     * @param row row index
+     */
+    public void removeRow(int row) {
+        rows.remove(row);
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Appends rows from stream in background. <br>
+     * Stream is consumed off the Event Dispatch Thread, rows are added to table by chunks.
+     *
+     * @param source    rows source
+     * @param chunkSize number of rows added at once
+     *
+     * @return started worker, may be used to cancel loading or wait for it
+     */
+    public SwingWorker<Void, List<T>> load(Stream<? extends T> source, int chunkSize) {
+        SwingWorker<Void, List<T>> worker = new SwingWorker<Void, List<T>>() {
+            @Override protected Void doInBackground() {
+                Iterator<? extends T> it = source.iterator();
+                List<T> chunk = new ArrayList<>(chunkSize);
+                while (it.hasNext() && !isCancelled()) {
+                    chunk.add(it.next());
+                    if (chunk.size() == chunkSize) {
+                        publish(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    publish(chunk);
+                }
+                return null;
+            }
+
+            @Override protected void process(List<List<T>> chunks) {
+                // chunks published since last call are added by one insertion
+                if (chunks.size() == 1) {
+                    addRows(chunks.get(0));
+                    return;
+                }
+                List<T> items = new ArrayList<>();
+                for (List<T> chunk : chunks) {
+                    items.addAll(chunk);
+                }
+                addRows(items);
+            }
+        };
+        worker.execute();
+        return worker;
+    }
+
+    @Override public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override public int getColumnCount() {
+        return plan.size();
+    }
+
+    @Override public String getColumnName(int column) {
+        return plan.getLabel(column);
+    }
+
+    @Override public Class<?> getColumnClass(int column) {
+        return columnClasses[column];
+    }
+
+    @Override public boolean isCellEditable(int row, int column) {
+        return !plan.getField(column).isReadonly();
+    }
+
+    @Override public Object getValueAt(int row, int column) {
+        return plan.getField(column).getAccessor().get(rows.get(row));
+    }
+
+    /**
+     * Sets field of row object. {@code null} is ignored for primitive fields.
+     */
+    @Override public void setValueAt(Object value, int row, int column) {
+        MelchiorFieldContext field = plan.getField(column);
+        if (value == null && field.getFieldType().isPrimitive()) {
+            return;
+        }
+        field.getAccessor().set(rows.get(row), value);
+        fireTableCellUpdated(row, column);
+    }
+
+    private static Class boxed(Class type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return type;
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.table;
+
+import javax.swing.*;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * List model over live collection or array. <br>
+ * Elements are not copied: lists and arrays are accessed by index, other collections are iterated
+ * (sequential access, as done by {@link JList} while painting, costs O(1) per element,
+ * and recently returned elements are kept, so repaints do not iterate again).
+ * Changes made through model are applied to source immediately and reported to listeners
+ * for affected indices only.
+ *
+ * @author Max Balushkin
+ *
+ * @see javax.swing.JList
+ */
+public class CollectionListModel extends AbstractListModel<Object> {
+
+    /**
+     * Number of last iterated elements kept, should exceed number of visible rows.
+     */
+    private static final int WINDOW = 64;
+
+    private final Object source;
+
+    /**
+     * Iterator of non-list collection and index of element it returned last. <br>
+     * Last {@link #WINDOW} returned elements are kept ({@code window[i % WINDOW]} is element {@code i}),
+     * so repainting visible cells does not restart iteration.
+     */
+    private Iterator<?> cursor;
+    private int cursorIndex;
+    private final Object[] window = new Object[WINDOW];
+
+    /**
+     * Creates model.
+     *
+     * @param source collection or array
+     */
+    public CollectionListModel(Object source) {
+        if (!(source instanceof Collection) && !source.getClass().isArray()) {
+            throw new IllegalArgumentException("Collection or array expected: " + source.getClass().getName());
+        }
+        this.source = source;
+    }
+
+    /**
+     * Returns source collection or array.
+     *
+     * @return source
+     */
+    public Object getSource() {
+        return source;
+    }
+
+    /**
+     * Whether elements may be added and removed (source is not array).
+     *
+     * @return {@code true} if size of source may be changed
+     */
+    public boolean isResizable() {
+        return source instanceof Collection;
+    }
+
+    @Override public int getSize() {
+        return source instanceof Collection ? ((Collection)source).size() : Array.getLength(source);
+    }
+
+    @Override public Object getElementAt(int index) {
+        if (source instanceof List) {
+            return ((List)source).get(index);
+        }
+        if (!(source instanceof Collection)) {
+            return Array.get(source, index);
+        }
+        if (cursor != null && index <= cursorIndex && index > cursorIndex - WINDOW) {
+            return window[index % WINDOW];
+        }
+        if (cursor == null || index < cursorIndex) {
+            cursor = ((Collection)source).iterator();
+            cursorIndex = -1;
+        }
+        while (cursorIndex < index) {
+            ++cursorIndex;
+            window[cursorIndex % WINDOW] = cursor.next();
+        }
+        return window[index % WINDOW];
+    }
+
+    /**
+     * Replaces element.
+     *
+     * @param index   element index
+     * @param element new element
+     */
+    public void set(int index, Object element) {
+        if (source instanceof List) {
+            ((List)source).set(index, element);
+            fireContentsChanged(this, index, index);
+        } else if (source instanceof Collection) {
+            Object old = getElementAt(index);
+            Collection c = (Collection)source;
+            int size = c.size();
+            c.remove(old);
+            c.add(element);
+            resetCursor();
+            if (c.size() < size) {
+                fireIntervalRemoved(this, size - 1, size - 1);
+            }
+            fireContentsChanged(this, 0, c.size() - 1);
+        } else {
+            Array.set(source, index, element);
+            fireContentsChanged(this, index, index);
+        }
+    }
+
+    /**
+     * Appends element.
+     *
+     * @param element new element
+     */
+    public void add(Object element) {
+        Collection c = resizable();
+        if (c.add(element)) {
+            resetCursor();
+            int i = c.size() - 1;
+            if (c instanceof List) {
+                fireIntervalAdded(this, i, i);
+            } else {
+                fireContentsChanged(this, 0, i);
+            }
+        }
+    }
+
+    /**
+     * Removes element.
+     *
+     * @param index element index
+     */
+    public void remove(int index) {
+        Collection c = resizable();
+        if (c instanceof List) {
+            ((List)c).remove(index);
+        } else {
+            c.remove(getElementAt(index));
+        }
+        resetCursor();
+        fireIntervalRemoved(this, index, index);
+    }
+
+    private Collection resizable() {
+        if (!isResizable()) {
+            throw new UnsupportedOperationException("Array can't be resized");
+        }
+        return (Collection)source;
+    }
+
+    private void resetCursor() {
+        cursor = null;
+        Arrays.fill(window, null);
+    }
+
+}
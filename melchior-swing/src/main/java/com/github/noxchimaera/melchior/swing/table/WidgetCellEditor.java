@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.table;
+
+import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
+import com.github.noxchimaera.melchior.core.convert.ValueConversion;
+
+import javax.swing.*;
+import javax.swing.table.TableCellEditor;
+import java.awt.*;
+
+/**
+ * Table cell editor which uses Melchior widget. <br>
+ * Editing is not stopped while widget value can't be converted to column field type
+ * (or is empty for primitive field).
+ *
+ * @param <J> UI component type
+ *
+ * @author Max Balushkin
+ */
+public class WidgetCellEditor<J extends JComponent> extends AbstractCellEditor implements TableCellEditor {
+
+    private final MelchiorWidget<J> widget;
+    private final ValueConversion conversion;
+    /**
+     * Converted widget value, set when editing is stopped.
+     */
+    private Object value;
+
+    /**
+     * Creates cell editor.
+     *
+     * @param widget editor widget
+     */
+    public WidgetCellEditor(MelchiorWidget<J> widget) {
+        this(widget, ValueConversion.identity());
+    }
+
+    /**
+     * Creates cell editor which converts values between widget and column.
+     *
+     * @param widget     editor widget
+     * @param conversion conversion between widget value type and column field type
+     */
+    public WidgetCellEditor(MelchiorWidget<J> widget, ValueConversion conversion) {
+        this.widget = widget;
+        this.conversion = conversion;
+    }
+
+    /**
+     * Returns editor widget.
+     *
+     * @return widget
+     */
+    public MelchiorWidget<J> getWidget() {
+        return widget;
+    }
+
+    @Override public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
+        widget.set(conversion.toWidget(value));
+        return widget.javaComponent();
+    }
+
+    @Override public Object getCellEditorValue() {
+        return value;
+    }
+
+    @Override public boolean stopCellEditing() {
+        try {
+            value = conversion.toField(widget.get());
+        } catch (IllegalArgumentException ex) {
+            UIManager.getLookAndFeel().provideErrorFeedback(widget.javaComponent());
+            return false;
+        }
+        if (value == null && conversion.getFieldType().isPrimitive()) {
+            UIManager.getLookAndFeel().provideErrorFeedback(widget.javaComponent());
+            return false;
+        }
+        return super.stopCellEditing();
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.utils;
+
+import javax.swing.*;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.ItemListener;
+import java.beans.PropertyChangeListener;
+
+/**
+ * Listens to value changes of Swing components. <br>
+ * Listener is chosen by component type: document of text components, item state of buttons,
+ * action of combo boxes, change of spinners and sliders, selection of lists.
+ * Other components are observed through {@code value} property and focus loss.
+ *
+ * @author Max Balushkin
+ */
+public final class ComponentChanges {
+
+    private ComponentChanges() {
+    }
+
+    /**
+     * Adds listener of value changes to component.
+     *
+     * @param cmpt     component
+     * @param listener the operation to perform when value may have changed
+     *
+     * @return the operation which removes added listener
+     */
+    public static Runnable listen(JComponent cmpt, Runnable listener) {
+        if (cmpt instanceof JTextComponent) {
+            Document doc = ((JTextComponent)cmpt).getDocument();
+            DocumentListener l = new DocumentListener() {
+                @Override public void insertUpdate(DocumentEvent e) {
+                    listener.run();
+                }
+
+                @Override public void removeUpdate(DocumentEvent e) {
+                    listener.run();
+                }
+
+                @Override public void changedUpdate(DocumentEvent e) {
+                }
+            };
+            doc.addDocumentListener(l);
+            return () -> doc.removeDocumentListener(l);
+        }
+        if (cmpt instanceof AbstractButton) {
+            AbstractButton button = (AbstractButton)cmpt;
+            ItemListener l = e -> listener.run();
+            button.addItemListener(l);
+            return () -> button.removeItemListener(l);
+        }
+        if (cmpt instanceof JComboBox) {
+            JComboBox box = (JComboBox)cmpt;
+            ActionListener l = e -> listener.run();
+            box.addActionListener(l);
+            return () -> box.removeActionListener(l);
+        }
+        if (cmpt instanceof JSpinner) {
+            JSpinner spinner = (JSpinner)cmpt;
+            ChangeListener l = e -> listener.run();
+            spinner.addChangeListener(l);
+            return () -> spinner.removeChangeListener(l);
+        }
+        if (cmpt instanceof JSlider) {
+            JSlider slider = (JSlider)cmpt;
+            ChangeListener l = e -> listener.run();
+            slider.addChangeListener(l);
+            return () -> slider.removeChangeListener(l);
+        }
+        if (cmpt instanceof JList) {
+            JList list = (JList)cmpt;
+            ListSelectionListener l = e -> {
+                if (!e.getValueIsAdjusting()) {
+                    listener.run();
+                }
+            };
+            list.addListSelectionListener(l);
+            return () -> list.removeListSelectionListener(l);
+        }
+
+        PropertyChangeListener pl = e -> listener.run();
+        FocusListener fl = new FocusAdapter() {
+            @Override public void focusLost(FocusEvent e) {
+                listener.run();
+            }
+        };
+        cmpt.addPropertyChangeListener("value", pl);
+        cmpt.addFocusListener(fl);
+        return () -> {
+            cmpt.removePropertyChangeListener("value", pl);
+            cmpt.removeFocusListener(fl);
+        };
+    }
+
+}
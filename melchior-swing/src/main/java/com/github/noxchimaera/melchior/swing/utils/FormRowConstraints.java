@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Max Balushkin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.noxchimaera.melchior.swing.utils;
+
+import java.awt.*;
+import java.util.Arrays;
+
+import static com.github.noxchimaera.melchior.swing.utils.GridConstraint.*;
+
+/**
+ * Shared GridBagLayout constraints of two-column form rows (label and widget). <br>
+ * Constraints are built once per row index and reused by all forms,
+ * {@link GridBagLayout} copies constraints when component is added, so they are never modified.
+ *
+ * @author Max Balushkin
+ */
+public final class FormRowConstraints {
+
+    private static GridBagConstraints[] labels = new GridBagConstraints[0];
+    private static GridBagConstraints[] widgets = new GridBagConstraints[0];
+
+    private FormRowConstraints() {
+    }
+
+    /**
+     * Returns constraint of label in specified row.
+     *
+     * @param row row index
+     *
+     * @return constraint, must not be modified
+     */
+    public static synchronized GridBagConstraints label(int row) {
+        ensure(row);
+        return labels[row];
+    }
+
+    /**
+     * Returns constraint of widget in specified row.
+     *
+     * @param row row index
+     *
+     * @return constraint, must not be modified
+     */
+    public static synchronized GridBagConstraints widget(int row) {
+        ensure(row);
+        return widgets[row];
+    }
+
+    private static void ensure(int row) {
+        if (row < labels.length) {
+            return;
+        }
+        int n = Math.max(row + 1, labels.length * 2);
+        int from = labels.length;
+        labels = Arrays.copyOf(labels, n);
+        widgets = Arrays.copyOf(widgets, n);
+        for (int i = from; i < n; ++i) {
+            labels[i] = at(0, i)
+                .anchor(AnchorAbsolute.WEST).insets(5, 5, 5, 5).build();
+            widgets[i] = at(1, i).insets(5, 5, 5, 5).weight(1, 0)
+                .fill(Fill.HORIZONTAL).width(GridBagConstraints.REMAINDER).build();
+        }
+    }
+
+}
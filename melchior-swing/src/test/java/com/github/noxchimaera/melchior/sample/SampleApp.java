@@ -17,6 +17,7 @@
 package com.github.noxchimaera.melchior.sample;
 
 import com.github.noxchimaera.melchior.core.annotations.MelchiorField;
+import com.github.noxchimaera.melchior.core.components.IntWidget;
 import com.github.noxchimaera.melchior.core.components.MelchiorWidget;
 import com.github.noxchimaera.melchior.core.components.WidgetFactory;
 import com.github.noxchimaera.melchior.core.context.MelchiorClassContext;
@@ -32,13 +33,14 @@ public class SampleApp {
     private static void prepareFactory(WidgetFactory<JComponent> fct) {
         fct.register(String.class.getName(), () -> new MelchiorWidget<JComponent>(
             new JTextField(),
+            String.class,
             cmpt -> ((JTextField)cmpt).getText(),
-            (cmpt, o) -> ((JTextField)cmpt).setText(o.toString())
+            (cmpt, o) -> ((JTextField)cmpt).setText((String)o)
         ));
-        fct.register(int.class.getName(), () -> new MelchiorWidget<JComponent>(
+        fct.register(int.class, () -> new IntWidget<JComponent>(
             new JSpinner(),
-            cmpt -> ((JSpinner)cmpt).getValue(),
-            (cmpt, o) -> ((JSpinner)cmpt).setValue(o)
+            cmpt -> (Integer)((JSpinner)cmpt).getValue(),
+            (cmpt, v) -> ((JSpinner)cmpt).setValue(v)
         ));
     }
 
@@ -49,7 +51,7 @@ public class SampleApp {
 
         BasicSwingBuilder b = new BasicSwingBuilder(ctx, fct);
         JFrame frame = b.create(
-            data -> System.out.println(data),
+            (data, changed) -> System.out.println(data + ", changed: " + changed),
             () -> { }
         );
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);